@@ -1,12 +1,27 @@
 package com.example.demo20;
 
+import com.example.demo20.controller.PerformanceOverlay;
+import com.example.demo20.controller.SudokuController;
+import com.example.demo20.controller.SudokuViewBuilder;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Clase principal de la aplicación Sudoku 6x6.
@@ -17,6 +32,35 @@ import java.io.IOException;
  */
 public class SudokuApplication extends Application {
 
+    /**
+     * Propiedad del sistema que activa el modo de inicio rápido (vista sin FXML).
+     */
+    public static final String FAST_START_PROPERTY = "sudoku.fastStart";
+
+    /**
+     * Propiedad del sistema que cierra la aplicación tras el primer fotograma.
+     * Se usa en la ejecución de entrenamiento que genera el archivo CDS.
+     */
+    public static final String EXIT_AFTER_FIRST_FRAME_PROPERTY = "sudoku.exitAfterFirstFrame";
+
+    /**
+     * Propiedad del sistema con la ruta donde volcar una grabación JFR con el perfil sudoku.jfc.
+     */
+    public static final String JFR_PROPERTY = "sudoku.jfr";
+
+    /**
+     * Instante de carga de esta clase, usado si el sistema no informa el inicio del proceso.
+     */
+    private static final Instant CLASS_LOAD_TIME = Instant.now();
+
+    /**
+     * Prepara la aplicación antes de crear la interfaz.
+     */
+    @Override
+    public void init() {
+        startFlightRecording();
+    }
+
     /**
      * Punto de entrada de la aplicación JavaFX.
      *
@@ -26,13 +70,28 @@ public class SudokuApplication extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         try {
-            // Cargar el archivo FXML
-            FXMLLoader fxmlLoader = new FXMLLoader(
-                    SudokuApplication.class.getResource("sudoku-view.fxml")
-            );
+            boolean fastStart = isFastStart();
+            Parent root;
+            SudokuController controller;
+
+            if (fastStart) {
+                // Construir la vista por código, sin FXML ni reflexión
+                controller = new SudokuController();
+                root = SudokuViewBuilder.build(controller);
+            } else {
+                // Cargar el archivo FXML
+                FXMLLoader fxmlLoader = new FXMLLoader(
+                        SudokuApplication.class.getResource("sudoku-view.fxml")
+                );
+                root = fxmlLoader.load();
+                controller = fxmlLoader.getController();
+            }
 
-            // Crear la escena
-            Scene scene = new Scene(fxmlLoader.load());
+            // Crear la escena con el panel de rendimiento superpuesto (F3)
+            PerformanceOverlay overlay = new PerformanceOverlay();
+            Scene scene = new Scene(new StackPane(root, overlay));
+            overlay.install(scene);
+            reportFirstFrame(scene, fastStart);
 
             // Configurar el stage
             stage.setTitle("Sudoku 6x6 - Fundamentos de Programación Orientada a Eventos");
@@ -51,6 +110,7 @@ public class SudokuApplication extends Application {
             // Configurar el comportamiento al cerrar
             stage.setOnCloseRequest(event -> {
                 System.out.println("Cerrando aplicación Sudoku...");
+                controller.cleanup();
             });
 
             // Mostrar la ventana
@@ -65,6 +125,59 @@ public class SudokuApplication extends Application {
         }
     }
 
+    /**
+     * Indica si se pidió el modo de inicio rápido, ya sea por propiedad del sistema
+     * o con el argumento --fast-start.
+     */
+    private boolean isFastStart() {
+        return Boolean.getBoolean(FAST_START_PROPERTY)
+                || getParameters().getRaw().contains("--fast-start");
+    }
+
+    /**
+     * Mide el tiempo desde el lanzamiento del proceso hasta el primer pulso
+     * completo de la escena (primer fotograma interactivo) y lo informa por consola.
+     */
+    private void reportFirstFrame(Scene scene, boolean fastStart) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+
+            Instant launch = ProcessHandle.current().info().startInstant().orElse(CLASS_LOAD_TIME);
+            long millis = Duration.between(launch, Instant.now()).toMillis();
+            System.out.println("Primer fotograma interactivo en " + millis + " ms"
+                    + (fastStart ? " (inicio rápido)." : " (FXML)."));
+
+            if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME_PROPERTY)) {
+                Platform.runLater(Platform::exit);
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /**
+     * Inicia una grabación JFR con el perfil incluido si se indicó la propiedad sudoku.jfr.
+     * La grabación se vuelca al archivo indicado al cerrar la JVM.
+     */
+    private static void startFlightRecording() {
+        String destination = System.getProperty(JFR_PROPERTY);
+        if (destination == null) {
+            return;
+        }
+
+        try (Reader reader = new InputStreamReader(
+                SudokuApplication.class.getResourceAsStream("jfr/sudoku.jfc"), StandardCharsets.UTF_8)) {
+            Recording recording = new Recording(Configuration.create(reader));
+            recording.setName("Sudoku");
+            recording.setDestination(Paths.get(destination));
+            recording.setDumpOnExit(true);
+            recording.start();
+            System.out.println("Grabación JFR activa, se guardará en " + destination);
+        } catch (IOException | ParseException | RuntimeException e) {
+            System.err.println("No se pudo iniciar la grabación JFR: " + e.getMessage());
+        }
+    }
+
     /**
      * Método principal que lanza la aplicación JavaFX.
      *
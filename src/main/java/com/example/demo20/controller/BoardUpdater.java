@@ -0,0 +1,226 @@
+package com.example.demo20.controller;
+
+import com.example.demo20.jfr.UiUpdateEvent;
+import com.example.demo20.model.SudokuModel;
+import com.example.demo20.perf.PerformanceSampler;
+import com.example.demo20.perf.PerformanceSampler.Metric;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+
+import java.util.Arrays;
+
+/**
+ * Lleva los cambios del modelo a las celdas de la vista una sola vez por pulso de JavaFX.
+ *
+ * <p>El actualizador escucha los eventos del modelo y el controlador le avisa de los cambios
+ * propios de la vista (selección, resaltado de ayudas). Las celdas cambiadas (texto, estilo o
+ * contador de ayudas) se aplican justo antes del layout del siguiente pulso. Se recuerda lo último que
+ * se mostró en cada celda, así que solo se tocan los nodos cuyo contenido cambió de verdad.
+ * Mientras se aplican los cambios, {@link #isApplying()} permite a los oyentes de texto
+ * ignorar los {@code setText} hechos por programa.</p>
+ */
+final class BoardUpdater implements SudokuModel.Listener {
+
+    /**
+     * Calcula el estilo que le corresponde a una celda.
+     */
+    interface StyleSource {
+        String styleOf(int row, int col);
+    }
+
+    private static final int SIZE = 6;
+    private static final int CELLS = SIZE * SIZE;
+    private static final long ALL_CELLS = (1L << CELLS) - 1;
+    private static final String[] DIGITS = {"", "1", "2", "3", "4", "5", "6"};
+
+    private final SudokuModel model;
+    private final TextField[][] cells;
+    private final Label hintsLabel;
+    private final StyleSource styles;
+    private final PerformanceSampler sampler = PerformanceSampler.get();
+    private final Runnable pulseListener = this::flush;
+
+    private final int[] shownValues = new int[CELLS];     // -1 = desconocido
+    private final String[] shownStyles = new String[CELLS];
+    private int shownHints = -1;
+
+    private long dirtyText;   // un bit por celda: fila * 6 + columna
+    private long dirtyStyle;
+    private boolean hintsDirty;
+    private boolean applying;
+    private Scene scene;
+
+    BoardUpdater(SudokuModel model, Node view, TextField[][] cells, Label hintsLabel, StyleSource styles) {
+        this.model = model;
+        this.cells = cells;
+        this.hintsLabel = hintsLabel;
+        this.styles = styles;
+        Arrays.fill(shownValues, -1);
+        model.addListener(this);
+
+        view.sceneProperty().addListener((observable, oldScene, newScene) -> attach(newScene));
+        attach(view.getScene());
+    }
+
+    @Override
+    public void cellChanged(int row, int col, int value) {
+        markText(row, col);
+    }
+
+    @Override
+    public void errorsChanged(long changedCells) {
+        dirtyStyle |= changedCells;
+        schedule();
+    }
+
+    @Override
+    public void hintsChanged(int hintsRemaining) {
+        markHints();
+    }
+
+    @Override
+    public void gameStarted() {
+        markAll();
+    }
+
+    /**
+     * @return {@code true} mientras se escriben textos por programa
+     */
+    boolean isApplying() {
+        return applying;
+    }
+
+    void markAll() {
+        dirtyText = ALL_CELLS;
+        dirtyStyle = ALL_CELLS;
+        hintsDirty = true;
+        schedule();
+    }
+
+    private void markText(int row, int col) {
+        dirtyText |= bit(row, col);
+        schedule();
+    }
+
+    void markStyle(int row, int col) {
+        dirtyStyle |= bit(row, col);
+        schedule();
+    }
+
+    private void markHints() {
+        hintsDirty = true;
+        schedule();
+    }
+
+    /**
+     * El usuario escribió {@code value} y el modelo lo aceptó: la celda ya lo muestra.
+     */
+    void userEntered(int row, int col, int value) {
+        shownValues[row * SIZE + col] = value;
+    }
+
+    /**
+     * La celda muestra algo que el modelo no aceptó: se restaura su valor en el próximo pulso.
+     */
+    void rejectInput(int row, int col) {
+        shownValues[row * SIZE + col] = -1;
+        markText(row, col);
+    }
+
+    /**
+     * Aplica los cambios pendientes. Se ejecuta como oyente previo al layout de cada pulso.
+     */
+    void flush() {
+        if ((dirtyText | dirtyStyle) == 0 && !hintsDirty) {
+            return;
+        }
+
+        UiUpdateEvent event = new UiUpdateEvent();
+        event.begin();
+        long start = sampler.start();
+        int touched = 0;
+
+        applying = true;
+        try {
+            long bits = dirtyText;
+            dirtyText = 0;
+            while (bits != 0) {
+                int index = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int row = index / SIZE;
+                int col = index % SIZE;
+                TextField cell = cells[row][col];
+
+                int value = model.getValue(row, col);
+                if (shownValues[index] != value) {
+                    shownValues[index] = value;
+                    cell.setText(DIGITS[value]);
+                    touched++;
+                }
+                boolean editable = !model.isInitialCell(row, col);
+                if (cell.isEditable() != editable) {
+                    cell.setEditable(editable);
+                }
+            }
+
+            bits = dirtyStyle;
+            dirtyStyle = 0;
+            while (bits != 0) {
+                int index = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                String style = styles.styleOf(index / SIZE, index % SIZE);
+                if (shownStyles[index] != style) {
+                    shownStyles[index] = style;
+                    cells[index / SIZE][index % SIZE].setStyle(style);
+                    touched++;
+                }
+            }
+
+            if (hintsDirty) {
+                hintsDirty = false;
+                int hints = model.getHintsRemaining();
+                if (hints != shownHints) {
+                    shownHints = hints;
+                    hintsLabel.setText(String.valueOf(hints));
+                }
+            }
+        } finally {
+            applying = false;
+        }
+        sampler.record(Metric.RESTYLE, start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.pass = "flush";
+            event.cells = touched;
+            event.commit();
+        }
+    }
+
+    private void attach(Scene next) {
+        if (scene != null) {
+            scene.removePreLayoutPulseListener(pulseListener);
+        }
+        scene = next;
+        if (scene != null) {
+            scene.addPreLayoutPulseListener(pulseListener);
+            schedule();
+        }
+    }
+
+    /**
+     * Sin escena no hay pulsos: los cambios quedan marcados y se aplican al mostrarse la vista.
+     */
+    private void schedule() {
+        if (scene != null) {
+            Platform.requestNextPulse();
+        }
+    }
+
+    private static long bit(int row, int col) {
+        return 1L << (row * SIZE + col);
+    }
+}
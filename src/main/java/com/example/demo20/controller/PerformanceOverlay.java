@@ -0,0 +1,111 @@
+package com.example.demo20.controller;
+
+import com.example.demo20.perf.LatencyRing;
+import com.example.demo20.perf.PerformanceSampler;
+import com.example.demo20.perf.PerformanceSampler.Metric;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.StackPane;
+import javafx.scene.text.Font;
+import javafx.util.Duration;
+
+/**
+ * Panel de diagnóstico superpuesto (HUD) que muestra el tiempo de pulso de JavaFX,
+ * la latencia del motor, el uso de heap y la tasa de asignación.
+ * Se muestra u oculta con F3. Oculto, no registra oyentes de pulso ni temporizadores.
+ */
+public class PerformanceOverlay extends Label {
+
+    private static final KeyCode TOGGLE_KEY = KeyCode.F3;
+
+    private final PerformanceSampler sampler = PerformanceSampler.get();
+    private final Timeline refresher;
+    private final Runnable preLayoutListener = this::onPreLayout;
+    private final Runnable postLayoutListener = this::onPostLayout;
+
+    private Scene scene;
+    private long lastPulseStart;
+    private long pulseStart;
+
+    public PerformanceOverlay() {
+        setVisible(false);
+        setManaged(false);
+        setMouseTransparent(true);
+        setFont(Font.font("Monospaced", 11.0));
+        setPadding(new Insets(6.0));
+        setStyle("-fx-background-color: rgba(0, 0, 0, 0.75); -fx-text-fill: #2ecc71; -fx-background-radius: 4;");
+        StackPane.setAlignment(this, Pos.TOP_RIGHT);
+        StackPane.setMargin(this, new Insets(8.0));
+
+        refresher = new Timeline(new KeyFrame(Duration.millis(250), e -> refresh()));
+        refresher.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /**
+     * Instala el atajo de teclado en la escena.
+     */
+    public void install(Scene scene) {
+        this.scene = scene;
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == TOGGLE_KEY) {
+                toggle();
+                event.consume();
+            }
+        });
+    }
+
+    public void toggle() {
+        boolean show = !isVisible();
+        sampler.setEnabled(show);
+        setVisible(show);
+        setManaged(show);
+
+        if (show) {
+            lastPulseStart = 0;
+            scene.addPreLayoutPulseListener(preLayoutListener);
+            scene.addPostLayoutPulseListener(postLayoutListener);
+            refresh();
+            refresher.play();
+        } else {
+            refresher.stop();
+            scene.removePreLayoutPulseListener(preLayoutListener);
+            scene.removePostLayoutPulseListener(postLayoutListener);
+        }
+    }
+
+    private void onPreLayout() {
+        pulseStart = System.nanoTime();
+        if (lastPulseStart != 0) {
+            sampler.recordDuration(Metric.FRAME, pulseStart - lastPulseStart);
+        }
+        lastPulseStart = pulseStart;
+    }
+
+    private void onPostLayout() {
+        sampler.recordDuration(Metric.PULSE, System.nanoTime() - pulseStart);
+    }
+
+    private void refresh() {
+        StringBuilder sb = new StringBuilder();
+        appendLatency(sb, "Frame     ", sampler.ring(Metric.FRAME));
+        appendLatency(sb, "CSS+layout", sampler.ring(Metric.PULSE));
+        appendLatency(sb, "Restyle   ", sampler.ring(Metric.RESTYLE));
+        appendLatency(sb, "setValue  ", sampler.ring(Metric.SET_VALUE));
+        appendLatency(sb, "New game  ", sampler.ring(Metric.NEW_GAME));
+        sb.append(String.format("Heap       %6.1f MB%n", sampler.usedHeapBytes() / (1024.0 * 1024.0)));
+        sb.append(String.format("Alloc      %6.1f KB/s%n", sampler.allocationRateSinceGameStart() / 1024.0));
+        sb.append(String.format("GC         %d (%d ms)", sampler.gcCountSinceGameStart(), sampler.gcMillisSinceGameStart()));
+        setText(sb.toString());
+    }
+
+    private static void appendLatency(StringBuilder sb, String name, LatencyRing ring) {
+        sb.append(String.format("%s %7.2f ms  avg %6.2f  max %6.2f%n",
+                name, ring.last() / 1e6, ring.mean() / 1e6, ring.max() / 1e6));
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.demo20.controller;
 
+import com.example.demo20.model.MoveJournal;
 import com.example.demo20.model.SudokuModel;
+import com.example.demo20.perf.PerformanceSampler;
+import com.example.demo20.perf.PerformanceSampler.Metric;
+import com.example.demo20.stats.GameStatistics;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
@@ -16,7 +20,10 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
 import javafx.util.Duration;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.ResourceBundle;
 
@@ -44,6 +51,19 @@ public class SudokuController implements Initializable {
     private TextField[][] cellMatrix;
     private Timeline timer;
     private TextField selectedCell; //celda seleccionada
+    private int selectedIndex = -1;
+    private int hintIndex = -1; // celda resaltada por la última ayuda
+    private Timeline hintHighlight;
+    private BoardUpdater updater;
+    private final PerformanceSampler sampler = PerformanceSampler.get();
+    private MoveJournal journal;
+    private GameStatistics statistics;
+    private boolean gameRecorded;
+
+    /**
+     * Propiedad del sistema con la ruta del diario de jugadas; "none" lo desactiva.
+     */
+    private static final String JOURNAL_PROPERTY = "sudoku.journal";
 
     private static final String NORMAL_STYLE = "-fx-border-color: #2c3e50; -fx-border-width: 2; -fx-background-color: white; -fx-font-size: 16; -fx-font-weight: bold;";
     private static final String ERROR_STYLE = "-fx-border-color: #e74c3c; -fx-border-width: 3; -fx-background-color: #ffebee; -fx-font-size: 16; -fx-font-weight: bold;";
@@ -53,11 +73,38 @@ public class SudokuController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        model = new SudokuModel();
         initializeCellMatrix();
+        initializeGame();
+    }
+
+    /**
+     * Enlaza el controlador con una vista construida por código (modo de inicio rápido),
+     * sin pasar por la inyección reflexiva de FXML.
+     */
+    void bindView(GridPane grid, TextField[][] cells, Label status, Label hints, Label time) {
+        this.sudokuGrid = grid;
+        this.cellMatrix = cells;
+        this.statusLabel = status;
+        this.hintsLabel = hints;
+        this.timeLabel = time;
+        initializeGame();
+    }
+
+    private void initializeGame() {
+        model = new SudokuModel();
+        openJournal();
+        statistics = GameStatistics.open(
+                Paths.get(System.getProperty("user.home"), ".sudoku6x6", "stats.bin"));
+        updater = new BoardUpdater(model, sudokuGrid, cellMatrix, hintsLabel, this::getCellStyle);
+        model.addListener(new SudokuModel.Listener() {
+            @Override
+            public void completed() {
+                onGameCompleted();
+            }
+        });
         setupCellEvents();
         setupTimer();
-        updateUI();
+        updater.markAll();
         statusLabel.setText("¡Bienvenido al Sudoku! Haz clic en 'Nuevo Juego' para comenzar.");
     }
 
@@ -80,34 +127,54 @@ public class SudokuController implements Initializable {
 
                 cell.setOnMouseClicked(event -> {
                     if (!model.isInitialCell(r, c)) {
-                        selectCell(cell);
+                        selectCell(r, c);
                     }
                 });
 
                 //cell.setOnKeyPressed(this::handleKeyPress);
 
+                // Un solo oyente; los textos que escribe el actualizador no vuelven al modelo
                 cell.textProperty().addListener((observable, oldValue, newValue) -> {
-                    handleTextChange(r, c, newValue);
-                });
-
-                cell.textProperty().addListener((observable, oldValue, newValue) -> {
-                    if (!newValue.matches("[1-6]?")) {
-                        cell.setText(oldValue);
+                    if (!updater.isApplying()) {
+                        handleTextChange(r, c, newValue);
                     }
                 });
             }
         }
     }
 
+    private void openJournal() {
+        String location = System.getProperty(JOURNAL_PROPERTY);
+        if ("none".equals(location)) {
+            return;
+        }
+
+        Path path = location != null
+                ? Paths.get(location)
+                : Paths.get(System.getProperty("user.home"), ".sudoku6x6", "moves.journal");
+        try {
+            journal = MoveJournal.open(path);
+            model.setJournal(journal);
+        } catch (IOException | RuntimeException e) {
+            // El diario es opcional: si no se puede abrir, se juega sin registrar
+            System.err.println("No se pudo abrir el diario de jugadas: " + e.getMessage());
+        }
+    }
+
     private void setupTimer() {
         timer = new Timeline(new KeyFrame(Duration.seconds(1), e -> updateTimer()));//se ejecuta cada segundo
         timer.setCycleCount(Timeline.INDEFINITE);
+        hintHighlight = new Timeline(new KeyFrame(Duration.seconds(2), e -> clearHintHighlight()));
     }
 
-    private void selectCell(TextField cell) {
-        selectedCell = cell;
-        updateCellStyles();
-        cell.requestFocus();
+    private void selectCell(int row, int col) {
+        if (selectedIndex >= 0) {
+            updater.markStyle(selectedIndex / 6, selectedIndex % 6);
+        }
+        selectedIndex = row * 6 + col;
+        selectedCell = cellMatrix[row][col];
+        updater.markStyle(row, col);
+        selectedCell.requestFocus();
     }
 
 
@@ -143,24 +210,43 @@ public class SudokuController implements Initializable {
     }
 
     private void handleTextChange(int row, int col, String newValue) {
-        try {
-            int value = newValue.isEmpty() ? 0 : Integer.parseInt(newValue);
-
-            if (model.setValue(row, col, value)) {
-                updateCellStyles();
-                updateUI();
+        // Solo se admite vacío o un dígito del 1 al 6; cualquier otra cosa se revierte al valor del modelo
+        boolean valid = newValue.isEmpty()
+                || (newValue.length() == 1 && newValue.charAt(0) >= '1' && newValue.charAt(0) <= '6');
+        if (!valid) {
+            updater.rejectInput(row, col);
+            return;
+        }
 
-                if (model.isGameCompleted()) {
-                    timer.stop();
-                    showGameCompletedDialog();
-                }
-            }
-        } catch (NumberFormatException e) {
+        int value = newValue.isEmpty() ? 0 : newValue.charAt(0) - '0';
+        if (applyMove(row, col, value)) {
+            updater.userEntered(row, col, value);
+        } else {
+            updater.rejectInput(row, col);
         }
     }
 
+    /**
+     * Aplica una jugada al modelo; lo que hay que redibujar llega al actualizador como eventos del modelo.
+     *
+     * @return {@code true} si el modelo aceptó la jugada
+     */
+    private boolean applyMove(int row, int col, int value) {
+        long start = sampler.start();
+        boolean accepted = model.setValue(row, col, value);
+        sampler.record(Metric.SET_VALUE, start);
+        return accepted;
+    }
+
+    private void onGameCompleted() {
+        timer.stop();
+        recordCompletedGame();
+        // Fuera del oyente de texto, para no abrir un diálogo modal en medio de la jugada
+        Platform.runLater(this::showGameCompletedDialog);
+    }
+
     @FXML
-    private void handleNewGame(ActionEvent event) {
+    void handleNewGame(ActionEvent event) {
         if (hasGameInProgress()) {
             Optional<ButtonType> result = showConfirmationDialog(
                     "Nuevo Juego",
@@ -172,9 +258,12 @@ public class SudokuController implements Initializable {
             }
         }
 
+        long start = sampler.start();
         model.startNewGame();
-        updateUI();
-        updateCellStyles();
+        sampler.record(Metric.NEW_GAME, start);
+        sampler.markGameStart();
+        gameRecorded = false;
+        clearHintHighlight();
 
         timer.stop();
         timer.play();
@@ -183,7 +272,7 @@ public class SudokuController implements Initializable {
     }
 
     @FXML
-    private void handleHelp(ActionEvent event) {
+    void handleHelp(ActionEvent event) {
         if (model.getHintsRemaining() <= 0) {
             showAlert("Sin ayudas", "Ya no tienes ayudas disponibles para este juego.", Alert.AlertType.INFORMATION);
             return;
@@ -199,37 +288,22 @@ public class SudokuController implements Initializable {
         int col = hint[1];
         int number = hint[2];
 
-        TextField cell = cellMatrix[row][col];
-        cell.setText(String.valueOf(number));
+        clearHintHighlight();
+        applyMove(row, col, number);
 
-        Platform.runLater(() -> {
-            cell.setStyle(HINT_STYLE);
-            Timeline highlightTimer = new Timeline(new KeyFrame(Duration.seconds(2), e -> updateCellStyles()));
-            highlightTimer.play();
-        });
+        hintIndex = row * 6 + col;
+        updater.markStyle(row, col);
+        hintHighlight.playFromStart();
 
-        updateUI();
         statusLabel.setText("¡Ayuda aplicada! El número " + number + " se colocó en la fila " + (row + 1) + ", columna " + (col + 1) + ".");
     }
 
     @FXML
-    private void handleValidate(ActionEvent event) {
+    void handleValidate(ActionEvent event) {
         model.validateAndMarkErrors();
-        updateCellStyles();
 
-        boolean hasErrors = false;
-        int filledCells = 0;
-
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
-                if (model.getValue(row, col) != 0) {
-                    filledCells++;
-                }
-                if (model.hasError(row, col)) {
-                    hasErrors = true;
-                }
-            }
-        }
+        boolean hasErrors = model.getConflictCount() > 0;
+        int filledCells = model.getFilledCount();
 
         if (hasErrors) {
             statusLabel.setText("Se encontraron errores en el tablero. Las celdas incorrectas están resaltadas en rojo.");
@@ -237,6 +311,7 @@ public class SudokuController implements Initializable {
         } else if (filledCells == 36) {
             statusLabel.setText("¡Felicitaciones! Has completado el Sudoku correctamente.");
             timer.stop();
+            recordCompletedGame();
             showGameCompletedDialog();
         } else {
             statusLabel.setText("¡Muy bien! No hay errores hasta ahora. Continúa completando el tablero.");
@@ -245,7 +320,7 @@ public class SudokuController implements Initializable {
     }
 
     @FXML
-    private void handleClear(ActionEvent event) {
+    void handleClear(ActionEvent event) {
         Optional<ButtonType> result = showConfirmationDialog(
                 "Limpiar Tablero",
                 "¿Estás seguro de que quieres limpiar todos los números ingresados?"
@@ -253,38 +328,26 @@ public class SudokuController implements Initializable {
 
         if (result.get() == ButtonType.OK) {
             model.clearUserEntries();
-            updateUI();
-            updateCellStyles();
             statusLabel.setText("Tablero limpiado. Puedes continuar desde los números iniciales.");
         }
     }
 
-    private void updateUI() {
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
-                int value = model.getValue(row, col);
-                String text = value == 0 ? "" : String.valueOf(value);
-                cellMatrix[row][col].setText(text);
-                cellMatrix[row][col].setEditable(!model.isInitialCell(row, col));
-            }
-        }
-
-        hintsLabel.setText(String.valueOf(model.getHintsRemaining()));
-    }
-
-    private void updateCellStyles() {
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
-                TextField cell = cellMatrix[row][col];
-                String style = getCellStyle(row, col);
-                cell.setStyle(style);
-            }
+    private void clearHintHighlight() {
+        if (hintIndex < 0) {
+            return;
         }
+        updater.markStyle(hintIndex / 6, hintIndex % 6);
+        hintIndex = -1;
+        hintHighlight.stop();
     }
 
     private String getCellStyle(int row, int col) {
         TextField cell = cellMatrix[row][col];
 
+        if (row * 6 + col == hintIndex) {
+            return HINT_STYLE;
+        }
+
         if (model.hasError(row, col)) {
             return ERROR_STYLE;
         }
@@ -308,14 +371,7 @@ public class SudokuController implements Initializable {
     }
 
     private boolean hasGameInProgress() {
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
-                if (model.getValue(row, col) != 0 && !model.isInitialCell(row, col)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return model.getUserEntryCount() > 0;
     }
 
     private Optional<ButtonType> showConfirmationDialog(String title, String message) {
@@ -369,10 +425,33 @@ public class SudokuController implements Initializable {
         statusLabel.setText("¡Juego completado en " + timeText + "! ¡Bien hecho!");
     }
 
+    /**
+     * Registra la partida completada en las estadísticas, una sola vez por juego.
+     */
+    private void recordCompletedGame() {
+        if (gameRecorded) {
+            return;
+        }
+        gameRecorded = true;
+        GameStats stats = getCurrentGameStats();
+        statistics.record(model.getDifficulty(), stats.getElapsedTime().toMillis(), stats.getHintsUsed());
+    }
+
     public void cleanup() {
         if (timer != null) {
             timer.stop();
         }
+        if (statistics != null) {
+            statistics.close();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el diario de jugadas: " + e.getMessage());
+            }
+            journal = null;
+        }
     }
 
     public GameStats getCurrentGameStats() {
@@ -385,18 +464,7 @@ public class SudokuController implements Initializable {
     }
 
     private double getCompletionPercentage() {
-        int filledCells = 0;
-        int totalCells = 36;
-
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
-                if (model.getValue(row, col) != 0) {
-                    filledCells++;
-                }
-            }
-        }
-
-        return (double) filledCells / totalCells * 100;
+        return (double) model.getFilledCount() / 36 * 100;
     }
 
     public static class GameStats {
@@ -0,0 +1,151 @@
+package com.example.demo20.controller;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * Construye la vista del Sudoku directamente en código, sin FXML ni reflexión.
+ * Reproduce la misma jerarquía que sudoku-view.fxml y conecta los nodos con el
+ * controlador, lo que acorta el arranque en frío (modo de inicio rápido).
+ */
+public final class SudokuViewBuilder {
+
+    private static final int GRID_SIZE = 6;
+
+    private static final String CELL_STYLE = "-fx-border-color: #2c3e50; -fx-border-width: 2; -fx-background-color: white; -fx-font-size: 16; -fx-font-weight: bold;";
+    private static final String CELL_BLUE_STYLE = "-fx-border-color: #3498db; -fx-border-width: 3; -fx-background-color: white; -fx-font-size: 16; -fx-font-weight: bold;";
+    private static final String CELL_RED_STYLE = "-fx-border-color: #e74c3c; -fx-border-width: 3; -fx-background-color: white; -fx-font-size: 16; -fx-font-weight: bold;";
+
+    private SudokuViewBuilder() {
+    }
+
+    /**
+     * Crea la vista completa y la enlaza con el controlador indicado.
+     *
+     * @param controller controlador que manejará los eventos de la vista
+     * @return nodo raíz de la escena
+     */
+    public static Parent build(SudokuController controller) {
+        BorderPane root = new BorderPane();
+
+        // Título e instrucciones
+        Label title = new Label("SUDOKU 6x6");
+        title.setAlignment(Pos.CENTER);
+        title.setTextFill(Color.web("#2c3e50"));
+        title.setFont(Font.font("System", FontWeight.BOLD, 28.0));
+
+        Label instructions = new Label("Complete la cuadrícula con números del 1 al 6. Cada fila, columna y bloque 2x3 debe contener todos los números sin repetir.");
+        instructions.setAlignment(Pos.CENTER);
+        instructions.setTextFill(Color.web("#34495e"));
+        instructions.setWrapText(true);
+        instructions.setFont(Font.font(12.0));
+
+        VBox top = new VBox(10.0, title, instructions);
+        top.setAlignment(Pos.CENTER);
+        top.setPadding(new Insets(20.0));
+        root.setTop(top);
+
+        // Tablero de Sudoku 6x6
+        GridPane sudokuGrid = new GridPane();
+        sudokuGrid.setAlignment(Pos.CENTER);
+        sudokuGrid.setGridLinesVisible(true);
+        sudokuGrid.setHgap(2.0);
+        sudokuGrid.setVgap(2.0);
+        sudokuGrid.setStyle("-fx-background-color: #2c3e50; -fx-padding: 5;");
+
+        TextField[][] cells = new TextField[GRID_SIZE][GRID_SIZE];
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                TextField cell = new TextField();
+                cell.setAlignment(Pos.CENTER);
+                cell.setPrefSize(50.0, 50.0);
+                cell.setStyle(initialCellStyle(row, col));
+                cells[row][col] = cell;
+                sudokuGrid.add(cell, col, row);
+            }
+        }
+
+        Label statusLabel = new Label("¡Bienvenido al Sudoku! Haz clic en 'Nuevo Juego' para comenzar.");
+        statusLabel.setAlignment(Pos.CENTER);
+        statusLabel.setTextFill(Color.web("#7f8c8d"));
+        statusLabel.setFont(Font.font(14.0));
+
+        VBox center = new VBox(20.0, sudokuGrid, statusLabel);
+        center.setAlignment(Pos.CENTER);
+        center.setPadding(new Insets(20.0));
+        root.setCenter(center);
+
+        // Botones principales
+        Button newGameButton = createButton("Nuevo Juego", "#27ae60");
+        Button helpButton = createButton("Ayuda", "#3498db");
+        Button validateButton = createButton("Validar", "#e67e22");
+        Button clearButton = createButton("Limpiar", "#e74c3c");
+
+        newGameButton.setOnAction(controller::handleNewGame);
+        helpButton.setOnAction(controller::handleHelp);
+        validateButton.setOnAction(controller::handleValidate);
+        clearButton.setOnAction(controller::handleClear);
+
+        HBox buttons = new HBox(20.0, newGameButton, helpButton, validateButton, clearButton);
+        buttons.setAlignment(Pos.CENTER);
+
+        // Información adicional
+        Label hintsLabel = createInfoLabel("3", "#e74c3c", true);
+        Label timeLabel = createInfoLabel("00:00", "#27ae60", true);
+        Region spacer = new Region();
+        spacer.setPrefWidth(50.0);
+
+        HBox info = new HBox(30.0,
+                createInfoLabel("Ayudas restantes:", "#2c3e50", false), hintsLabel,
+                spacer,
+                createInfoLabel("Tiempo:", "#2c3e50", false), timeLabel);
+        info.setAlignment(Pos.CENTER);
+
+        VBox bottom = new VBox(15.0, buttons, info);
+        bottom.setAlignment(Pos.CENTER);
+        bottom.setStyle("-fx-background-color: #ecf0f1;");
+        bottom.setPadding(new Insets(20.0));
+        root.setBottom(bottom);
+
+        controller.bindView(sudokuGrid, cells, statusLabel, hintsLabel, timeLabel);
+        return root;
+    }
+
+    /**
+     * Estilo inicial de cada celda, igual al declarado en el FXML.
+     */
+    private static String initialCellStyle(int row, int col) {
+        if (row < 3) {
+            return (col == 2 || col == 3) ? CELL_BLUE_STYLE : CELL_STYLE;
+        }
+        return (col == 2 || col == 3) ? CELL_STYLE : CELL_RED_STYLE;
+    }
+
+    private static Button createButton(String text, String color) {
+        Button button = new Button(text);
+        button.setMnemonicParsing(false);
+        button.setPrefSize(120.0, 40.0);
+        button.setStyle("-fx-background-color: " + color + "; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 5;");
+        button.setFont(Font.font(14.0));
+        return button;
+    }
+
+    private static Label createInfoLabel(String text, String color, boolean bold) {
+        Label label = new Label(text);
+        label.setTextFill(Color.web(color));
+        label.setFont(bold ? Font.font("System", FontWeight.BOLD, 12.0) : Font.font(12.0));
+        return label;
+    }
+}
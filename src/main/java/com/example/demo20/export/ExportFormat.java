@@ -0,0 +1,127 @@
+package com.example.demo20.export;
+
+import com.example.demo20.model.BoardVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Formatos de salida de la exportación. Cada registro se codifica por separado, en la etapa de
+ * serialización, para que el escritor solo copie bytes.
+ */
+enum ExportFormat {
+
+    /**
+     * Una línea por tablero: las 36 pistas ({@code .} = vacía), las 36 celdas de la solución y la
+     * dificultad, separadas por espacios.
+     */
+    TEXT("txt") {
+        @Override
+        byte[] encode(PuzzleRecord record) {
+            byte[] name = record.difficulty.name().getBytes(StandardCharsets.US_ASCII);
+            byte[] line = new byte[2 * CELLS + 3 + name.length];
+            writeCells(record.clues, line, 0, '.');
+            line[CELLS] = ' ';
+            writeCells(record.solution, line, CELLS + 1, '0');
+            line[2 * CELLS + 1] = ' ';
+            System.arraycopy(name, 0, line, 2 * CELLS + 2, name.length);
+            line[line.length - 1] = '\n';
+            return line;
+        }
+    },
+
+    /**
+     * Cabecera de 8 bytes ({@code SDKX}, versión, lado del tablero, bytes por registro, 0) y
+     * registros de {@value #RECORD_BYTES} bytes: la solución empaquetada como en
+     * {@link BoardVerifier} (36 bytes), las pistas como un byte por fila con un bit por columna
+     * (6 bytes), la dificultad ({@link Enum#ordinal()}) y el número de pistas.
+     */
+    BINARY("bin") {
+        @Override
+        byte[] header() {
+            return new byte[]{'S', 'D', 'K', 'X', 1, 6, RECORD_BYTES, 0};
+        }
+
+        @Override
+        byte[] encode(PuzzleRecord record) {
+            byte[] bytes = new byte[RECORD_BYTES];
+            BoardVerifier.pack(record.solution, bytes, 0);
+            for (int row = 0; row < 6; row++) {
+                int mask = 0;
+                for (int col = 0; col < 6; col++) {
+                    if (record.clues[row][col] != 0) {
+                        mask |= 1 << col;
+                    }
+                }
+                bytes[CELLS + row] = (byte) mask;
+            }
+            bytes[CELLS + 6] = (byte) record.difficulty.ordinal();
+            bytes[CELLS + 7] = (byte) record.clueCount;
+            return bytes;
+        }
+    },
+
+    /**
+     * JSON Lines: un objeto por línea con el identificador, las pistas y la solución como
+     * cadenas de 36 dígitos (0 = vacía), la dificultad y los nodos de la verificación (0 en los
+     * tableros derivados, que no se verifican).
+     */
+    JSON("jsonl") {
+        @Override
+        byte[] encode(PuzzleRecord record) {
+            char[] clues = new char[CELLS];
+            char[] solution = new char[CELLS];
+            for (int cell = 0; cell < CELLS; cell++) {
+                clues[cell] = (char) ('0' + record.clues[cell / 6][cell % 6]);
+                solution[cell] = (char) ('0' + record.solution[cell / 6][cell % 6]);
+            }
+            String line = "{\"id\":" + record.id
+                    + ",\"clues\":\"" + new String(clues)
+                    + "\",\"solution\":\"" + new String(solution)
+                    + "\",\"clueCount\":" + record.clueCount
+                    + ",\"difficulty\":\"" + record.difficulty
+                    + "\",\"searchNodes\":" + record.searchNodes + "}\n";
+            return line.getBytes(StandardCharsets.US_ASCII);
+        }
+    };
+
+    static final int RECORD_BYTES = BoardVerifier.BOARD_BYTES + 8;
+
+    private static final int CELLS = 36;
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return extensión de archivo sugerida
+     */
+    String extension() {
+        return extension;
+    }
+
+    /**
+     * @return bytes a escribir antes del primer registro
+     */
+    byte[] header() {
+        return new byte[0];
+    }
+
+    /**
+     * Codifica un tablero verificado y clasificado.
+     */
+    abstract byte[] encode(PuzzleRecord record);
+
+    static ExportFormat parse(String text) {
+        return valueOf(text.toUpperCase(Locale.ROOT));
+    }
+
+    private static void writeCells(int[][] grid, byte[] dest, int offset, char empty) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = grid[cell / 6][cell % 6];
+            dest[offset + cell] = (byte) (value == 0 ? empty : '0' + value);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.demo20.export;
+
+import com.example.demo20.model.CancellationToken;
+import com.example.demo20.model.Difficulty;
+import com.example.demo20.model.SearchBudget;
+import com.example.demo20.model.SearchResult;
+import com.example.demo20.model.SudokuModel;
+import com.example.demo20.model.Variant;
+import com.example.demo20.sim.Durations;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exportación masiva de tableros para producir contenido (paquetes de rompecabezas, libros
+ * impresos, el banco del servidor de carreras). Los tableros fluyen por una cadena de etapas de
+ * {@link java.util.concurrent.Flow}:
+ *
+ * <pre>
+ * generar → verificar unicidad → clasificar → serializar → escribir
+ * </pre>
+ *
+ * <p>La verificación avisa a la fuente de cada tablero que acepta o rechaza, y la fuente genera
+ * otro tablero por cada rechazo: se exportan exactamente los tableros pedidos. Los tableros
+ * derivados con {@link com.example.demo20.model.GridTransform} conservan la unicidad del tablero
+ * del que salen y pasan sin búsqueda.</p>
+ *
+ * <p>Las cuatro primeras etapas trabajan en paralelo; la escritura es secuencial. Entre etapas hay
+ * búferes acotados y cada etapa pide elementos a la anterior solo a medida que consigue publicar
+ * los suyos, así que una etapa lenta (normalmente el disco) frena a las anteriores en lugar de
+ * acumular tableros en memoria: el heap se mantiene plano sin importar cuántos millones se
+ * exporten.</p>
+ *
+ * <p>Una etapa que publica sobre un búfer lleno espera con el hilo tomado, y esa espera no avisa a
+ * un {@link java.util.concurrent.ForkJoinPool}, que por lo tanto no agrega hilos de reserva. Por eso
+ * {@link #run(ExecutorService, ExecutorService, OutputStream)} recibe dos ejecutores: el de los
+ * generadores, con un hilo por generador, y el de las demás etapas, con al menos
+ * {@link #stageThreads(int)} hilos, uno para cada elemento que puede estar en proceso y otro para
+ * cada entrega entre etapas. Así, aunque todas esperen a la vez, siempre queda un hilo para vaciar
+ * el búfer que las frena.</p>
+ *
+ * <p>Uso (no necesita JavaFX):</p>
+ * <pre>
+ * java -cp target/classes com.example.demo20.export.PuzzleExport --count 1000000 --format binary --out puzzles.bin --threads 8 --derive 4
+ * </pre>
+ */
+public final class PuzzleExport {
+
+    /** Límite de nodos por búsqueda; los tableros que lo superan se descartan y se reemplazan. */
+    private static final long MAX_SEARCH_NODES = 1_000_000;
+
+    /** Etapas paralelas que corren en el ejecutor compartido (verificar, clasificar y serializar). */
+    private static final int PARALLEL_STAGES = 3;
+
+    /** Entregas entre etapas: de la fuente a verificar, a clasificar, a serializar y al escritor. */
+    private static final int LINKS = 4;
+
+    private final long count;
+    private final ExportFormat format;
+    private final int threads;
+    private final int bufferCapacity;
+    private final int derive;
+    private final Duration reportInterval;
+    private final Variant variant;
+    private final CancellationToken cancellation = new CancellationToken();
+    private long maxVerifyNodes = MAX_SEARCH_NODES;
+
+    /**
+     * @param threads        hilos de trabajo por etapa paralela
+     * @param bufferCapacity elementos pendientes admitidos entre dos etapas
+     * @param derive         tableros por cada generación completa (ver {@link PuzzleSource})
+     */
+    PuzzleExport(Variant variant, long count, ExportFormat format, int threads, int bufferCapacity, int derive,
+                 Duration reportInterval) {
+        this.variant = variant;
+        this.count = count;
+        this.format = format;
+        this.threads = threads;
+        this.bufferCapacity = bufferCapacity;
+        this.derive = derive;
+        this.reportInterval = reportInterval;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long count = 100_000;
+        ExportFormat format = ExportFormat.TEXT;
+        Path outPath = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int buffer = 256;
+        int derive = 1;
+        Duration report = Duration.ofSeconds(5);
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--count":
+                    count = Long.parseLong(args[i + 1]);
+                    break;
+                case "--format":
+                    format = ExportFormat.parse(args[i + 1]);
+                    break;
+                case "--out":
+                    outPath = Paths.get(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--buffer":
+                    buffer = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--derive":
+                    derive = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--report":
+                    report = Durations.parse(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        if (outPath == null) {
+            outPath = Paths.get("puzzles." + format.extension());
+        }
+
+        ExecutorService generators = Executors.newFixedThreadPool(threads, threadFactory("exportar-generar"));
+        ExecutorService stages = Executors.newFixedThreadPool(stageThreads(threads), threadFactory("exportar-etapa"));
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outPath), 1 << 16)) {
+            new PuzzleExport(Variant.classic(), count, format, threads, buffer, derive, report)
+                    .run(generators, stages, out);
+        } finally {
+            generators.shutdownNow();
+            stages.shutdownNow();
+        }
+    }
+
+    /**
+     * Cambia el límite de nodos de la verificación, sin tocar el de la generación; con uno bajo la
+     * verificación rechaza muchos tableros.
+     */
+    void setMaxVerifyNodes(long maxVerifyNodes) {
+        this.maxVerifyNodes = maxVerifyNodes;
+    }
+
+    /**
+     * @param threads hilos de trabajo por etapa paralela
+     * @return hilos mínimos del ejecutor de etapas para que las esperas no lo agoten
+     */
+    static int stageThreads(int threads) {
+        return PARALLEL_STAGES * threads + LINKS;
+    }
+
+    /**
+     * Exporta los tableros a {@code out}, que no se cierra. Los ejecutores no se detienen.
+     *
+     * @param generators ejecutor de los generadores, con al menos {@code threads} hilos que no
+     *                   comparta con las etapas
+     * @param executor   ejecutor de las etapas paralelas y de las entregas, con al menos
+     *                   {@link #stageThreads(int)} hilos
+     * @return registros escritos, siempre {@code count}
+     */
+    long run(ExecutorService generators, ExecutorService executor, OutputStream out)
+            throws IOException, InterruptedException {
+        SearchBudget budget = SearchBudget.of(MAX_SEARCH_NODES, null, cancellation);
+        SearchBudget verifyBudget = SearchBudget.of(maxVerifyNodes, null, cancellation);
+        ThreadLocal<SudokuModel> verifiers = ThreadLocal.withInitial(() -> new SudokuModel(variant));
+
+        PuzzleSource source = new PuzzleSource(generators, executor, variant, threads, count, derive, budget,
+                bufferCapacity);
+        Stage<PuzzleRecord, PuzzleRecord> verify = new Stage<>("verificar", executor, threads, bufferCapacity,
+                record -> verify(verifiers.get(), source, record, verifyBudget));
+        Stage<PuzzleRecord, PuzzleRecord> rate = new Stage<>("clasificar", executor, threads, bufferCapacity,
+                record -> rate(variant, record));
+        Stage<PuzzleRecord, byte[]> serialize = new Stage<>("serializar", executor, threads, bufferCapacity,
+                format::encode);
+        PuzzleWriter writer = new PuzzleWriter(out, bufferCapacity);
+        List<StageMetrics> stages = List.of(source, verify, rate, serialize, writer);
+
+        source.subscribe(verify);
+        verify.subscribe(rate);
+        rate.subscribe(serialize);
+        serialize.subscribe(writer);
+
+        out.write(format.header());
+
+        PrintStream console = System.out;
+        console.printf("Exportando %d tableros en formato %s (%d hilos por etapa, búfer %d, %d por generación)%n",
+                count, format, threads, bufferCapacity, derive);
+        long start = System.nanoTime();
+        source.start();
+
+        long[] previous = snapshot(stages);
+        long previousTime = start;
+        while (true) {
+            try {
+                long written = writer.done().get(reportInterval.toMillis(), TimeUnit.MILLISECONDS);
+                console.println(formatSummary(stages, writer, System.nanoTime() - start));
+                return written;
+            } catch (TimeoutException e) {
+                long now = System.nanoTime();
+                long[] current = snapshot(stages);
+                console.println(formatInterval(stages, previous, current, now - previousTime, now - start));
+                previous = current;
+                previousTime = now;
+            } catch (ExecutionException e) {
+                // Detiene a los generadores y a las búsquedas en curso
+                cancellation.cancel();
+                source.abort(e.getCause());
+                throw new IOException("La exportación se interrumpió", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Comprueba que el tablero tenga solución única y avisa a la fuente del resultado, para que
+     * reemplace los rechazados. Los tableros derivados pasan sin búsqueda.
+     *
+     * @return el registro, o {@code null} para descartarlo
+     */
+    private static PuzzleRecord verify(SudokuModel model, PuzzleSource source, PuzzleRecord record,
+                                       SearchBudget budget) {
+        if (!record.derived) {
+            SearchResult result = model.verifyPuzzle(record.clues, null, budget);
+            record.searchNodes = model.getLastSearchNodes();
+            if (result != SearchResult.UNIQUE) {
+                source.rejected(record.id);
+                return null;
+            }
+        }
+        source.accepted();
+        return record;
+    }
+
+    /**
+     * Clasifica el tablero simulando su resolución con deducciones simples; el número de pistas
+     * casi no varía entre tableros mínimos y no distingue dificultades.
+     */
+    private static PuzzleRecord rate(Variant variant, PuzzleRecord record) {
+        record.difficulty = Difficulty.rate(variant, record.clues);
+        return record;
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger next = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + next.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Por etapa: elementos procesados, tiempo de trabajo y elementos esperando en su búfer de salida.
+     */
+    private static long[] snapshot(List<StageMetrics> stages) {
+        long[] values = new long[stages.size() * 3];
+        for (int i = 0; i < stages.size(); i++) {
+            StageMetrics stage = stages.get(i);
+            // Primero lo recibido por la siguiente, para no contar como en cola lo que ya salió
+            long taken = i + 1 < stages.size() ? stages.get(i + 1).received() : 0;
+            long processed = stage.processed();
+            values[3 * i] = processed;
+            values[3 * i + 1] = stage.busyNanos();
+            values[3 * i + 2] = i + 1 < stages.size() ? Math.max(0, processed - stage.dropped() - taken) : 0;
+        }
+        return values;
+    }
+
+    /**
+     * Rendimiento de cada etapa en el intervalo: elementos por segundo, ocupación de sus hilos
+     * y elementos esperando en su búfer de salida. La etapa con ocupación cercana al 100 % es
+     * el cuello de botella; las anteriores muestran el búfer lleno.
+     */
+    private static String formatInterval(List<StageMetrics> stages, long[] previous, long[] current,
+                                         long intervalNanos, long elapsedNanos) {
+        StringBuilder sb = new StringBuilder(String.format("[%6.0fs]", elapsedNanos / 1e9));
+        for (int i = 0; i < stages.size(); i++) {
+            StageMetrics stage = stages.get(i);
+            long items = current[3 * i] - previous[3 * i];
+            long busy = current[3 * i + 1] - previous[3 * i + 1];
+            sb.append(String.format(" %s=%.0f/s (%.0f%%, cola %d)", stage.name(), items * 1e9 / intervalNanos,
+                    busy * 100.0 / intervalNanos / stage.parallelism(), current[3 * i + 2]));
+        }
+        sb.append(String.format(" | heap %.1f MB",
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1048576.0));
+        return sb.toString();
+    }
+
+    private static String formatSummary(List<StageMetrics> stages, PuzzleWriter writer, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder sb = new StringBuilder(String.format("%nResumen tras %.1f s: %d tableros, %.1f MB escritos%n",
+                seconds, writer.processed(), writer.bytes() / 1048576.0));
+        for (StageMetrics stage : stages) {
+            long items = stage.processed();
+            sb.append(String.format("  %-10s %10d elementos %10.0f/s  %8.2f µs/elemento  %d descartados%n",
+                    stage.name(), items, items / seconds, items == 0 ? 0.0 : stage.busyNanos() / 1e3 / items,
+                    stage.dropped()));
+        }
+        return sb.toString();
+    }
+}
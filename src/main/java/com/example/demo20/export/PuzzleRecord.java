@@ -0,0 +1,23 @@
+package com.example.demo20.export;
+
+import com.example.demo20.model.Difficulty;
+
+/**
+ * Tablero en tránsito por el proceso de exportación. Cada etapa completa sus campos;
+ * el paso de una etapa a otra a través de los publicadores garantiza la visibilidad.
+ */
+final class PuzzleRecord {
+
+    final long id;
+    final int[][] clues = new int[6][6];
+    final int[][] solution = new int[6][6];
+    int clueCount;
+    /** Derivado con una transformación de un tablero verificado: conserva la unicidad y no se verifica. */
+    boolean derived;
+    long searchNodes;
+    Difficulty difficulty;
+
+    PuzzleRecord(long id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.demo20.export;
+
+import com.example.demo20.model.SearchBudget;
+import com.example.demo20.model.SearchResult;
+import com.example.demo20.model.SudokuModel;
+import com.example.demo20.model.Variant;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Primera etapa del proceso de exportación: genera tableros con varios {@link SudokuModel},
+ * uno por generador, y los publica hasta que la verificación acepta la cantidad pedida.
+ *
+ * <p>Cada identificador de {@code 0} a {@code count - 1} queda pendiente hasta que la etapa de
+ * verificación lo acepta ({@link #accepted()}) o lo rechaza ({@link #rejected(long)}); un
+ * identificador rechazado vuelve a repartirse y se genera otro tablero con él. La fuente se cierra
+ * cuando todos fueron aceptados, así que se exportan exactamente {@code count} tableros.</p>
+ *
+ * <p>Los generadores ocupan cada uno un hilo de su propio ejecutor hasta terminar. Cuando el búfer
+ * de la etapa siguiente está lleno, {@link #submit(Object)} los bloquea; como no comparten hilos
+ * con las etapas, la espera no impide que estas vacíen el búfer. Un generador sin identificadores
+ * por repartir espera a que se acepten o rechacen los pendientes.</p>
+ */
+final class PuzzleSource extends SubmissionPublisher<PuzzleRecord> implements StageMetrics {
+
+    private final Executor generatorExecutor;
+    private final Variant variant;
+    private final int generators;
+    private final long count;
+    private final int derive;
+    private final SearchBudget budget;
+
+    // Reparto de identificadores; todo protegido por el monitor de tickets
+    private final Object tickets = new Object();
+    private final ArrayDeque<Long> retries = new ArrayDeque<>();
+    private long nextId;
+    private long accepted;
+    private boolean aborted;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    /**
+     * @param generatorExecutor ejecutor de los generadores; necesita un hilo por generador
+     * @param deliveryExecutor  ejecutor de la entrega a la etapa siguiente; no debe compartir hilos
+     *                          con los generadores
+     * @param generators        generadores en paralelo, cada uno con su modelo
+     * @param count             tableros a exportar
+     * @param derive            tableros por cada generación completa: el primero se genera, los demás
+     *                          se derivan de él con {@link SudokuModel#startDerivedGame(SearchBudget)}
+     * @param bufferCapacity    tableros que la etapa siguiente puede tener pendientes
+     */
+    PuzzleSource(Executor generatorExecutor, Executor deliveryExecutor, Variant variant, int generators, long count,
+                 int derive, SearchBudget budget, int bufferCapacity) {
+        super(deliveryExecutor, bufferCapacity);
+        this.generatorExecutor = generatorExecutor;
+        this.variant = variant;
+        this.generators = generators;
+        this.count = count;
+        this.derive = Math.max(1, derive);
+        this.budget = budget;
+    }
+
+    /**
+     * Pone a trabajar a los generadores. Las etapas siguientes deben estar suscritas.
+     */
+    void start() {
+        active.set(generators);
+        for (int i = 0; i < generators; i++) {
+            generatorExecutor.execute(new Generator());
+        }
+    }
+
+    /**
+     * La verificación aceptó un tablero publicado.
+     */
+    void accepted() {
+        synchronized (tickets) {
+            accepted++;
+            if (accepted == count) {
+                tickets.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * La verificación rechazó un tablero publicado: su identificador se vuelve a generar.
+     */
+    void rejected(long id) {
+        synchronized (tickets) {
+            retries.add(id);
+            tickets.notify();
+        }
+    }
+
+    /**
+     * Detiene a los generadores, incluidos los que esperan identificadores, y cierra la fuente
+     * con la causa indicada.
+     */
+    void abort(Throwable cause) {
+        synchronized (tickets) {
+            aborted = true;
+            tickets.notifyAll();
+        }
+        closeExceptionally(cause);
+    }
+
+    /**
+     * @return el próximo identificador a generar, o {@code -1} si ya se aceptaron todos o la
+     *         exportación se interrumpió
+     */
+    private long takeTicket() throws InterruptedException {
+        synchronized (tickets) {
+            while (!aborted && accepted < count) {
+                if (!retries.isEmpty()) {
+                    return retries.poll();
+                }
+                if (nextId < count) {
+                    return nextId++;
+                }
+                tickets.wait();
+            }
+            return -1;
+        }
+    }
+
+    private final class Generator implements Runnable {
+        private final SudokuModel model = new SudokuModel(variant);
+        private int derivedLeft;
+
+        Generator() {
+            model.setVerbose(false);
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (long id = takeTicket(); id >= 0; id = takeTicket()) {
+                    long start = System.nanoTime();
+                    PuzzleRecord record = generate(id);
+                    busyNanos.add(System.nanoTime() - start);
+                    if (record == null) {
+                        break; // la exportación se canceló
+                    }
+                    submit(record);
+                    processed.increment();
+                }
+                finish();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                abort(e);
+            }
+        }
+
+        /**
+         * @return un tablero que el generador dio por único, o {@code null} si la exportación se interrumpió
+         */
+        private PuzzleRecord generate(long id) {
+            boolean derived;
+            while (true) {
+                derived = derivedLeft > 0;
+                if (nextBoard() == SearchResult.UNIQUE) {
+                    break;
+                }
+                // Sin unicidad comprobada no se puede derivar: se descarta y se parte de cero
+                dropped.increment();
+                processed.increment();
+                derivedLeft = 0;
+                if (isClosed()) {
+                    return null;
+                }
+            }
+
+            PuzzleRecord record = new PuzzleRecord(id);
+            record.derived = derived;
+            for (int row = 0; row < 6; row++) {
+                for (int col = 0; col < 6; col++) {
+                    record.solution[row][col] = model.getSolutionValue(row, col);
+                    if (model.isInitialCell(row, col)) {
+                        record.clues[row][col] = model.getValue(row, col);
+                        record.clueCount++;
+                    }
+                }
+            }
+            return record;
+        }
+
+        private SearchResult nextBoard() {
+            if (derivedLeft > 0) {
+                derivedLeft--;
+                return model.startDerivedGame(budget);
+            }
+            derivedLeft = derive - 1;
+            return model.startNewGame(budget);
+        }
+
+        private void finish() {
+            if (active.decrementAndGet() == 0) {
+                close();
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "generar";
+    }
+
+    @Override
+    public long processed() {
+        return processed.sum();
+    }
+
+    @Override
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public long busyNanos() {
+        return busyNanos.sum();
+    }
+
+    @Override
+    public int parallelism() {
+        return generators;
+    }
+
+    @Override
+    public long received() {
+        return 0;
+    }
+}
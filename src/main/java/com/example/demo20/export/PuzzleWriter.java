@@ -0,0 +1,111 @@
+package com.example.demo20.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Última etapa del proceso de exportación: escribe los registros ya codificados, de a uno y en
+ * el orden en que llegan, en un flujo de salida que no cierra.
+ */
+final class PuzzleWriter implements Flow.Subscriber<byte[]>, StageMetrics {
+
+    private final OutputStream out;
+    private final int bufferCapacity;
+    private final CompletableFuture<Long> done = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    // Solo los escribe el hilo que entrega los registros; el informe los lee
+    private volatile long written;
+    private volatile long bytes;
+    private volatile long busyNanos;
+
+    PuzzleWriter(OutputStream out, int bufferCapacity) {
+        this.out = out;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * @return se completa con la cantidad de registros escritos al terminar la exportación,
+     *         o con la excepción que la interrumpió
+     */
+    CompletableFuture<Long> done() {
+        return done;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(bufferCapacity);
+    }
+
+    @Override
+    public void onNext(byte[] record) {
+        if (done.isDone()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            out.write(record);
+        } catch (IOException e) {
+            subscription.cancel();
+            done.completeExceptionally(new UncheckedIOException(e));
+            return;
+        }
+        busyNanos += System.nanoTime() - start;
+        bytes += record.length;
+        written++;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        done.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            out.flush();
+            done.complete(written);
+        } catch (IOException e) {
+            done.completeExceptionally(new UncheckedIOException(e));
+        }
+    }
+
+    @Override
+    public String name() {
+        return "escribir";
+    }
+
+    @Override
+    public long processed() {
+        return written;
+    }
+
+    @Override
+    public long dropped() {
+        return 0;
+    }
+
+    @Override
+    public long busyNanos() {
+        return busyNanos;
+    }
+
+    @Override
+    public int parallelism() {
+        return 1;
+    }
+
+    @Override
+    public long received() {
+        return written;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo20.export;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Etapa intermedia del proceso de exportación: recibe elementos de la etapa anterior, los
+ * transforma en el ejecutor con hasta {@code parallelism} elementos a la vez y publica los
+ * resultados a la siguiente.
+ *
+ * <p>La contrapresión es la de {@link Flow}: la etapa pide a la anterior tantos elementos como
+ * hilos de trabajo tiene, y pide uno más solo cuando terminó uno y pudo publicarlo. Si el búfer
+ * de la etapa siguiente está lleno, {@link #submit(Object)} bloquea al hilo de trabajo, que deja de
+ * pedir; así la memoria en tránsito queda acotada por los búferes, no por el volumen exportado.
+ * Esa espera no es un {@link java.util.concurrent.ForkJoinPool.ManagedBlocker}: el ejecutor necesita
+ * un hilo propio para cada elemento en proceso y para cada entrega pendiente, o las etapas
+ * bloqueadas pueden dejar sin hilos a las que tendrían que vaciar sus búferes.</p>
+ *
+ * <p>Si la función devuelve {@code null}, el elemento se descarta. Los resultados pueden salir en
+ * otro orden que el de llegada.</p>
+ */
+final class Stage<I, O> extends SubmissionPublisher<O> implements Flow.Processor<I, O>, StageMetrics {
+
+    private final String name;
+    private final Executor workers;
+    private final int parallelism;
+    private final Function<I, O> work;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private volatile Flow.Subscription upstream;
+    private volatile boolean upstreamDone;
+
+    /**
+     * @param executor       ejecutor de la transformación y de la entrega a la etapa siguiente;
+     *                       ver {@link PuzzleExport} sobre cuántos hilos necesita
+     * @param parallelism    elementos procesados a la vez
+     * @param bufferCapacity elementos que la etapa siguiente puede tener pendientes
+     * @param work           transformación; puede devolver {@code null} para descartar el elemento
+     */
+    Stage(String name, Executor executor, int parallelism, int bufferCapacity, Function<I, O> work) {
+        super(executor, bufferCapacity);
+        this.name = name;
+        this.workers = executor;
+        this.parallelism = parallelism;
+        this.work = work;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.upstream = subscription;
+        subscription.request(parallelism);
+    }
+
+    @Override
+    public void onNext(I item) {
+        received.increment();
+        inFlight.incrementAndGet();
+        workers.execute(() -> process(item));
+    }
+
+    private void process(I item) {
+        try {
+            long start = System.nanoTime();
+            O result = work.apply(item);
+            busyNanos.add(System.nanoTime() - start);
+            if (result != null) {
+                submit(result); // bloquea mientras el búfer de la etapa siguiente esté lleno
+            } else {
+                dropped.increment();
+            }
+            processed.increment();
+            upstream.request(1);
+        } catch (RuntimeException e) {
+            upstream.cancel();
+            closeExceptionally(e);
+        } finally {
+            if (inFlight.decrementAndGet() == 0 && upstreamDone) {
+                close();
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        // Si todavía hay elementos en proceso, cierra el último que termine
+        if (inFlight.get() == 0) {
+            close();
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public long processed() {
+        return processed.sum();
+    }
+
+    @Override
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public long busyNanos() {
+        return busyNanos.sum();
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public long received() {
+        return received.sum();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo20.export;
+
+/**
+ * Contadores de una etapa del proceso de exportación, para el informe de rendimiento.
+ */
+interface StageMetrics {
+
+    String name();
+
+    /** Elementos procesados (incluidos los descartados). */
+    long processed();
+
+    /** Elementos descartados por la etapa (por ejemplo, tableros sin solución única). */
+    long dropped();
+
+    /** Tiempo total de trabajo sumado entre todos los hilos de la etapa. */
+    long busyNanos();
+
+    /** Número máximo de elementos que la etapa procesa a la vez. */
+    int parallelism();
+
+    /**
+     * Elementos recibidos de la etapa anterior (0 en la primera). Los publicados por una etapa
+     * ({@code processed() - dropped()}) menos los recibidos por la siguiente son los que esperan
+     * en el búfer entre ambas; se calculan así porque
+     * {@link java.util.concurrent.SubmissionPublisher#estimateMaximumLag()} espera el mismo
+     * cerrojo que un {@code submit} bloqueado.
+     */
+    long received();
+}
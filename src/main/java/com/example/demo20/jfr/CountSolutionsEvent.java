@@ -0,0 +1,27 @@
+package com.example.demo20.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Búsqueda de soluciones por backtracking en {@code countSolutions}.
+ */
+@Name("com.example.demo20.CountSolutions")
+@Label("Contar soluciones")
+@Category({"Sudoku", "Motor"})
+@Description("Conteo de soluciones para comprobar la unicidad de un tablero")
+@StackTrace(false)
+public class CountSolutionsEvent extends jdk.jfr.Event {
+
+    @Label("Nodos visitados")
+    public long nodesVisited;
+
+    @Label("Soluciones encontradas")
+    public int solutionsFound;
+
+    @Label("Presupuesto agotado")
+    public boolean aborted;
+}
@@ -0,0 +1,24 @@
+package com.example.demo20.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Generación de un tablero inicial en {@code generateInitialBoard}.
+ */
+@Name("com.example.demo20.GenerateBoard")
+@Label("Generar tablero")
+@Category({"Sudoku", "Motor"})
+@Description("Generación de un tablero con búsqueda de solución única")
+@StackTrace(false)
+public class GenerateBoardEvent extends jdk.jfr.Event {
+
+    @Label("Intentos")
+    public int attempts;
+
+    @Label("Solución única encontrada")
+    public boolean uniqueFound;
+}
@@ -0,0 +1,27 @@
+package com.example.demo20.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Cálculo de una ayuda en {@code getHint}.
+ */
+@Name("com.example.demo20.Hint")
+@Label("Ayuda")
+@Category({"Sudoku", "Motor"})
+@Description("Búsqueda de una sugerencia para el jugador")
+@StackTrace(false)
+public class HintEvent extends jdk.jfr.Event {
+
+    @Label("Sugerencia encontrada")
+    public boolean found;
+
+    @Label("Fila")
+    public int row;
+
+    @Label("Columna")
+    public int col;
+}
@@ -0,0 +1,24 @@
+package com.example.demo20.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Pasada del actualizador de la vista que aplica, una vez por pulso, los cambios pendientes de las celdas.
+ */
+@Name("com.example.demo20.UiUpdate")
+@Label("Actualizar vista")
+@Category({"Sudoku", "Interfaz"})
+@Description("Textos y estilos de celdas aplicados en un pulso")
+@StackTrace(false)
+public class UiUpdateEvent extends jdk.jfr.Event {
+
+    @Label("Pasada")
+    public String pass;
+
+    @Label("Celdas")
+    public int cells;
+}
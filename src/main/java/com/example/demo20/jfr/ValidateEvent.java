@@ -0,0 +1,21 @@
+package com.example.demo20.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Pasada de validación en {@code validateAndMarkErrors}.
+ */
+@Name("com.example.demo20.Validate")
+@Label("Validar tablero")
+@Category({"Sudoku", "Motor"})
+@Description("Marcado de celdas con conflictos en filas, columnas y bloques")
+@StackTrace(false)
+public class ValidateEvent extends jdk.jfr.Event {
+
+    @Label("Celdas con error")
+    public int errorCells;
+}
@@ -0,0 +1,163 @@
+package com.example.demo20.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Verificación masiva de tableros 6x6 completos, pensada para revalidar en el servidor
+ * los resultados enviados a la tabla de puntuaciones.
+ *
+ * <p>Cada tablero empaquetado ocupa {@value #BOARD_BYTES} bytes consecutivos, fila por fila,
+ * con valores del 1 al 6. Un tablero es válido si cada fila, columna y bloque 3x2 contiene
+ * los seis números exactamente una vez.</p>
+ *
+ * <p>Si el módulo {@code jdk.incubator.vector} está disponible (se arranca con
+ * {@code --add-modules jdk.incubator.vector}) se usa la implementación SIMD; si no, una
+ * implementación escalar basada en máscaras de bits.</p>
+ */
+public final class BoardVerifier {
+
+    public static final int BOARD_BYTES = 36;
+
+    static final int GRID_SIZE = 6;
+    static final int UNIT_COUNT = 18;
+
+    /** Máscara de una unidad completa: bits 1 a 6. */
+    static final int FULL_MASK = 0x7E;
+
+    /**
+     * Índices de celda de cada unidad: 6 filas, 6 columnas y 6 bloques 3x2.
+     */
+    static final int[][] UNITS = buildUnits();
+
+    /**
+     * Bit asociado a cada valor de byte; los valores fuera de 1..6 usan el bit 7,
+     * que nunca forma parte de {@link #FULL_MASK}.
+     */
+    private static final int[] VALUE_BITS = buildValueBits();
+
+    private static final boolean VECTORIZED =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private BoardVerifier() {
+    }
+
+    /**
+     * @return {@code true} si la verificación usa instrucciones SIMD
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Verifica {@code count} tableros almacenados a partir de {@code offset}.
+     *
+     * @param boards  tableros empaquetados
+     * @param offset  posición del primer tablero en el arreglo
+     * @param count   número de tableros
+     * @param results recibe la validez de cada tablero (debe tener al menos {@code count} posiciones)
+     * @return número de tableros válidos
+     */
+    public static int verify(byte[] boards, int offset, int count, boolean[] results) {
+        checkBounds(boards.length, offset, count, results);
+        if (VECTORIZED) {
+            return VectorBoardVerifier.verify(boards, offset, count, results);
+        }
+        int valid = 0;
+        for (int b = 0; b < count; b++) {
+            results[b] = isValid(boards, offset + b * BOARD_BYTES);
+            if (results[b]) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Verifica {@code count} tableros leídos desde la posición actual del búfer,
+     * sin modificar dicha posición.
+     *
+     * @return número de tableros válidos
+     */
+    public static int verify(ByteBuffer boards, int count, boolean[] results) {
+        int offset = boards.position();
+        checkBounds(boards.limit(), offset, count, results);
+        if (VECTORIZED) {
+            return VectorBoardVerifier.verify(boards, offset, count, results);
+        }
+        int valid = 0;
+        for (int b = 0; b < count; b++) {
+            results[b] = isValid(boards, offset + b * BOARD_BYTES);
+            if (results[b]) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Empaqueta un tablero en formato de {@value #BOARD_BYTES} bytes.
+     */
+    public static void pack(int[][] grid, byte[] dest, int offset) {
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                dest[offset + row * GRID_SIZE + col] = (byte) grid[row][col];
+            }
+        }
+    }
+
+    static boolean isValid(byte[] boards, int base) {
+        for (int[] unit : UNITS) {
+            int mask = 0;
+            for (int cell : unit) {
+                mask |= VALUE_BITS[boards[base + cell] & 0xFF];
+            }
+            if (mask != FULL_MASK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isValid(ByteBuffer boards, int base) {
+        for (int[] unit : UNITS) {
+            int mask = 0;
+            for (int cell : unit) {
+                mask |= VALUE_BITS[boards.get(base + cell) & 0xFF];
+            }
+            if (mask != FULL_MASK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkBounds(int length, int offset, int count, boolean[] results) {
+        if (offset < 0 || count < 0 || (long) offset + (long) count * BOARD_BYTES > length) {
+            throw new IndexOutOfBoundsException("Lote fuera de rango: offset=" + offset + ", count=" + count);
+        }
+        if (results.length < count) {
+            throw new IllegalArgumentException("El arreglo de resultados es demasiado corto");
+        }
+    }
+
+    /**
+     * Las unidades salen de la tabla compilada de {@link Variant#classic()}, la misma que usan
+     * el validador y el solucionador del modelo.
+     */
+    private static int[][] buildUnits() {
+        Variant classic = Variant.classic();
+        int[][] units = new int[UNIT_COUNT][GRID_SIZE];
+        for (int u = 0; u < UNIT_COUNT; u++) {
+            System.arraycopy(classic.unitCells, u * GRID_SIZE, units[u], 0, GRID_SIZE);
+        }
+        return units;
+    }
+
+    private static int[] buildValueBits() {
+        int[] bits = new int[256];
+        for (int v = 0; v < bits.length; v++) {
+            bits[v] = (v >= 1 && v <= 6) ? 1 << v : 0x80;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo20.model;
+
+/**
+ * Señal de cancelación cooperativa para las búsquedas del motor.
+ * Otro hilo puede llamar a {@link #cancel()}; las búsquedas la consultan periódicamente
+ * y terminan con resultado {@link SearchResult#UNKNOWN}.
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo20.model;
+
+import java.util.Arrays;
+
+/**
+ * Nivel de dificultad de un tablero, estimado simulando cómo lo resolvería una persona.
+ */
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD;
+
+    private static final int FULL_CANDIDATES = 0x7E; // números 1..6
+    private static final int EASY_MAX_PASSES = 5;
+    private static final int MEDIUM_MAX_PASSES = 7;
+
+    /**
+     * Clasifica un tablero resolviéndolo solo con deducciones simples, por pasadas: en cada pasada
+     * se completan a la vez todas las celdas con un único candidato (single desnudo) y, si no hay
+     * ninguna, todos los números que solo caben en una celda de alguna unidad (single oculto).
+     *
+     * <ul>
+     *     <li>{@link #EASY}: basta con singles desnudos, en {@value #EASY_MAX_PASSES} pasadas o menos;</li>
+     *     <li>{@link #MEDIUM}: basta con singles desnudos, en {@value #MEDIUM_MAX_PASSES} pasadas o menos;</li>
+     *     <li>{@link #HARD}: hacen falta singles ocultos, más pasadas o deducciones más avanzadas.</li>
+     * </ul>
+     *
+     * <p>La clasificación no cambia al permutar filas, columnas o dígitos, así que los tableros
+     * derivados con {@link GridTransform} conservan la del original.</p>
+     *
+     * @param variant reglas del tablero
+     * @param clues   celdas iniciales (0 = vacía)
+     * @return dificultad estimada
+     */
+    public static Difficulty rate(Variant variant, int[][] clues) {
+        int[] cells = new int[Variant.CELLS];
+        int[] candidates = new int[Variant.CELLS];
+        int[] hidden = new int[Variant.CELLS];
+        int empty = 0;
+        for (int cell = 0; cell < Variant.CELLS; cell++) {
+            cells[cell] = clues[cell / Variant.SIZE][cell % Variant.SIZE];
+            if (cells[cell] == 0) {
+                empty++;
+            }
+        }
+
+        int passes = 0;
+        boolean hiddenSingles = false;
+        while (empty > 0) {
+            for (int cell = 0; cell < Variant.CELLS; cell++) {
+                if (cells[cell] != 0) {
+                    continue;
+                }
+                int mask = FULL_CANDIDATES;
+                for (int i = variant.peerStart[cell], end = variant.peerStart[cell + 1]; i < end; i++) {
+                    mask &= ~(1 << cells[variant.peers[i]]);
+                }
+                if (mask == 0) {
+                    return HARD; // contradicción: el tablero no se resuelve con deducciones simples
+                }
+                candidates[cell] = mask;
+            }
+
+            int placed = 0;
+            for (int cell = 0; cell < Variant.CELLS; cell++) {
+                if (cells[cell] == 0 && Integer.bitCount(candidates[cell]) == 1) {
+                    cells[cell] = Integer.numberOfTrailingZeros(candidates[cell]);
+                    placed++;
+                }
+            }
+            if (placed == 0) {
+                placed = placeHiddenSingles(variant, cells, candidates, hidden);
+                if (placed == 0) {
+                    return HARD;
+                }
+                hiddenSingles = true;
+            }
+            empty -= placed;
+            passes++;
+        }
+
+        if (hiddenSingles || passes > MEDIUM_MAX_PASSES) {
+            return HARD;
+        }
+        return passes <= EASY_MAX_PASSES ? EASY : MEDIUM;
+    }
+
+    /**
+     * Completa a la vez todos los singles ocultos, para que el resultado no dependa del orden de
+     * recorrido.
+     *
+     * @return celdas completadas
+     */
+    private static int placeHiddenSingles(Variant variant, int[] cells, int[] candidates, int[] hidden) {
+        Arrays.fill(hidden, 0);
+        for (int base = 0; base < variant.unitCells.length; base += Variant.SIZE) {
+            for (int number = 1; number <= Variant.SIZE; number++) {
+                int found = -1;
+                int places = 0;
+                for (int k = base; k < base + Variant.SIZE; k++) {
+                    int cell = variant.unitCells[k];
+                    if (cells[cell] == 0 && (candidates[cell] & (1 << number)) != 0) {
+                        found = cell;
+                        places++;
+                    }
+                }
+                if (places == 1) {
+                    hidden[found] = number;
+                }
+            }
+        }
+
+        int placed = 0;
+        for (int cell = 0; cell < Variant.CELLS; cell++) {
+            if (hidden[cell] != 0) {
+                cells[cell] = hidden[cell];
+                placed++;
+            }
+        }
+        return placed;
+    }
+}
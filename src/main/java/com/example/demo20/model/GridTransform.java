@@ -0,0 +1,137 @@
+package com.example.demo20.model;
+
+import java.util.Random;
+
+/**
+ * Transformación que conserva la validez de un Sudoku 6x6 con bloques de 3x2: permuta las tres
+ * bandas de dos filas, las filas dentro de cada banda, las dos pilas de tres columnas, las columnas
+ * dentro de cada pila y renombra los dígitos.
+ *
+ * <p>La transposición no se incluye: convierte los bloques de 3x2 en bloques de 2x3, que ya no
+ * forman un tablero de la misma geometría.</p>
+ *
+ * <p>Aplicada a la vez a la solución y a la máscara de celdas iniciales, la transformación lleva un
+ * tablero con solución única a otro con solución única, sin volver a verificarlo. Las instancias son
+ * mutables para reutilizarlas sin reservar memoria; no son seguras entre hilos.</p>
+ */
+public final class GridTransform {
+
+    /** Número de transformaciones de posición: 3! · 2³ · 2! · 3! · 3!. */
+    public static final int POSITION_COUNT = 6 * 8 * 2 * 6 * 6;
+    /** Número de renombrados de dígitos: 6!. */
+    public static final int DIGIT_COUNT = 720;
+
+    private static final int SIZE = 6;
+
+    private static final int[][] PERMUTATIONS_3 = {
+            {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+    };
+
+    private final int[] rowMap = new int[SIZE];        // fila destino -> fila origen
+    private final int[] colMap = new int[SIZE];        // columna destino -> columna origen
+    private final int[] digitMap = new int[SIZE + 1];  // dígito origen -> dígito destino (0 -> 0)
+
+    /**
+     * Crea la transformación identidad.
+     */
+    public GridTransform() {
+        setPositions(0);
+        setDigits(0);
+    }
+
+    /**
+     * Elige una transformación uniforme entre todas las posibles.
+     *
+     * @return esta misma instancia
+     */
+    public GridTransform randomize(Random random) {
+        setPositions(random.nextInt(POSITION_COUNT));
+        setDigits(random.nextInt(DIGIT_COUNT));
+        return this;
+    }
+
+    /**
+     * Fija la parte de posiciones a partir de su índice en {@code [0, POSITION_COUNT)}.
+     */
+    public GridTransform setPositions(int index) {
+        int[] bands = PERMUTATIONS_3[index % 6];
+        index /= 6;
+        int rowSwaps = index % 8;
+        index /= 8;
+        int stackSwap = index % 2;
+        index /= 2;
+        int[] left = PERMUTATIONS_3[index % 6];
+        int[] right = PERMUTATIONS_3[index / 6];
+
+        for (int row = 0; row < SIZE; row++) {
+            int band = bands[row / 2];
+            rowMap[row] = band * 2 + (((rowSwaps >> band) & 1) ^ (row % 2));
+        }
+        for (int col = 0; col < SIZE; col++) {
+            int stack = (col / 3) ^ stackSwap;
+            int[] columns = stack == 0 ? left : right;
+            colMap[col] = stack * 3 + columns[col % 3];
+        }
+        return this;
+    }
+
+    /**
+     * Fija el renombrado de dígitos a partir de su índice en {@code [0, DIGIT_COUNT)}
+     * (número en base factorial; 0 es la identidad).
+     */
+    public GridTransform setDigits(int index) {
+        int available = 0x7E; // dígitos 1..6 todavía sin asignar
+        for (int value = 1; value <= SIZE; value++) {
+            int remaining = SIZE - value + 1;
+            int pick = index % remaining;
+            index /= remaining;
+            int bit = available;
+            for (int k = 0; k < pick; k++) {
+                bit &= bit - 1;
+            }
+            int chosen = Integer.numberOfTrailingZeros(bit);
+            available &= ~(1 << chosen);
+            digitMap[value] = chosen;
+        }
+        return this;
+    }
+
+    /**
+     * Transforma los valores de un tablero (0 = vacía). {@code source} y {@code target} deben ser distintos.
+     */
+    public void apply(int[][] source, int[][] target) {
+        for (int row = 0; row < SIZE; row++) {
+            int[] from = source[rowMap[row]];
+            int[] to = target[row];
+            for (int col = 0; col < SIZE; col++) {
+                to[col] = digitMap[from[colMap[col]]];
+            }
+        }
+    }
+
+    /**
+     * Transforma un tablero empaquetado por filas en 36 bytes.
+     */
+    public void apply(byte[] source, int sourceOffset, int[][] target) {
+        for (int row = 0; row < SIZE; row++) {
+            int base = sourceOffset + rowMap[row] * SIZE;
+            int[] to = target[row];
+            for (int col = 0; col < SIZE; col++) {
+                to[col] = digitMap[source[base + colMap[col]]];
+            }
+        }
+    }
+
+    /**
+     * Mueve una máscara de celdas (por ejemplo, las celdas iniciales) con la parte de posiciones.
+     */
+    public void apply(boolean[][] source, boolean[][] target) {
+        for (int row = 0; row < SIZE; row++) {
+            boolean[] from = source[rowMap[row]];
+            boolean[] to = target[row];
+            for (int col = 0; col < SIZE; col++) {
+                to[col] = from[colMap[col]];
+            }
+        }
+    }
+}
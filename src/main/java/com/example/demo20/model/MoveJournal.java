@@ -0,0 +1,526 @@
+package com.example.demo20.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Diario de jugadas en un archivo mapeado en memoria, de solo anexado.
+ * Cada acción del juego se guarda como un evento binario de tamaño fijo con marca de
+ * tiempo e identificador de sesión, lo que permite reproducir una partida hasta
+ * cualquier instante.
+ *
+ * <p>Formato: una cabecera de {@value #HEADER_SIZE} bytes seguida de eventos de
+ * {@value #EVENT_SIZE} bytes. El escritor es único y no usa bloqueos: escribe el evento
+ * y luego publica el nuevo total con una escritura de liberación en la cabecera.
+ * Los lectores leen ese total con adquisición y acceden a los eventos sin copiarlos.
+ * El escritor único se garantiza con un bloqueo del archivo.</p>
+ *
+ * <p>La cabecera guarda también las reglas de la {@link Variant} con que se juega: la región de
+ * cada celda y hasta {@value #MAX_EXTRA_UNITS} unidades extra. Un diario se escribe siempre con la
+ * misma variante y la reproducción la usa para reconstruir el modelo. El nombre de la variante no
+ * se guarda: solo las predefinidas ({@link Variant#classic()}, {@link Variant#diagonal()}) lo
+ * recuperan. Los diarios de la versión {@value #FIRST_VERSION}, sin variante, son clásicos.</p>
+ *
+ * <p>Los eventos se mapean por segmentos de {@value #SEGMENT_EVENTS} eventos, así que el archivo
+ * puede superar los 2 GB de un único mapeo. Mientras se escribe un segmento, el siguiente se mapea
+ * en segundo plano: quien registra la jugada (normalmente el hilo de JavaFX) no espera al sistema
+ * de archivos salvo que llene el segmento antes de que termine ese mapeo.</p>
+ */
+public final class MoveJournal implements AutoCloseable {
+
+    static final int MAGIC = 0x53444B4A; // "SDKJ"
+    static final int VERSION = 2;
+    static final int FIRST_VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int EVENT_SIZE = 64;
+    static final int CELLS = 36;
+
+    private static final int COUNT_OFFSET = 16;
+
+    // Variante: número de unidades extra, región de cada celda (dos por byte) y las celdas de cada unidad extra
+    private static final int EXTRA_UNITS_OFFSET = 12;
+    private static final int REGIONS_OFFSET = 24;
+    private static final int UNITS_OFFSET = REGIONS_OFFSET + CELLS / 2;
+    static final int MAX_EXTRA_UNITS = (HEADER_SIZE - UNITS_OFFSET) / 6;
+
+    // Segmentos de 4 MB; coinciden con la capacidad inicial de los diarios anteriores
+    static final int SEGMENT_SHIFT = 16;
+    static final int SEGMENT_EVENTS = 1 << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_EVENTS - 1;
+    private static final long SEGMENT_BYTES = (long) SEGMENT_EVENTS * EVENT_SIZE;
+
+    // Disposición de cada evento
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int SESSION_OFFSET = 8;
+    static final int TYPE_OFFSET = 16;
+    static final int ROW_OFFSET = 17;
+    static final int COL_OFFSET = 18;
+    static final int VALUE_OFFSET = 19;
+    static final int PAYLOAD_OFFSET = 20;
+
+    // Bit que marca una celda inicial dentro de la carga útil de NEW_GAME
+    static final int INITIAL_FLAG = 0x10;
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Tipos de evento registrados.
+     */
+    public enum EventType {
+        NEW_GAME, SET_VALUE, HINT, CLEAR, VALIDATE;
+
+        private static final EventType[] VALUES = values();
+
+        static EventType of(int code) {
+            return VALUES[code];
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final Variant variant;
+    private final long sessionId;
+    private final long baseEpochNanos;
+    private final long baseNanoTime;
+    private final List<MappedByteBuffer> writtenSegments = new ArrayList<>();
+    private MappedByteBuffer segment;
+    private long segmentIndex = -1;
+    private CompletableFuture<MappedByteBuffer> nextSegment;
+    private long count;
+
+    private MoveJournal(FileChannel channel, MappedByteBuffer header, Variant variant, long count) {
+        this.channel = channel;
+        this.header = header;
+        this.variant = variant;
+        this.count = count;
+        this.sessionId = ThreadLocalRandom.current().nextLong();
+        this.baseEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.baseNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Abre (o crea) un diario de juegos clásicos para anexar eventos.
+     *
+     * @see #open(Path, Variant)
+     */
+    public static MoveJournal open(Path path) throws IOException {
+        return open(path, Variant.classic());
+    }
+
+    /**
+     * Abre (o crea) un diario para anexar eventos. Los eventos existentes se conservan.
+     *
+     * @param path    ruta del archivo del diario
+     * @param variant reglas de los juegos registrados; un diario existente debe tener las mismas
+     * @return diario listo para escribir con un nuevo identificador de sesión
+     * @throws IOException si el archivo no se puede abrir, no es un diario válido, es de otra variante
+     *                     o ya lo tiene abierto otro escritor
+     * @throws IllegalArgumentException si la variante tiene más de {@value #MAX_EXTRA_UNITS} unidades extra
+     */
+    public static MoveJournal open(Path path, Variant variant) throws IOException {
+        if (variant.getUnitCount() - 3 * Variant.SIZE > MAX_EXTRA_UNITS) {
+            throw new IllegalArgumentException("El diario de jugadas admite hasta " + MAX_EXTRA_UNITS
+                    + " unidades extra: " + variant);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lock(channel, path);
+            long size = channel.size();
+            boolean existing = size > 0;
+            if (existing && size < HEADER_SIZE) {
+                throw new IOException("El diario de jugadas está truncado (" + size + " bytes): " + path);
+            }
+
+            long count = 0;
+            MappedByteBuffer header = mapHeader(channel, FileChannel.MapMode.READ_WRITE);
+            if (existing) {
+                checkHeader(header, path);
+                Variant stored = readVariant(header, path);
+                if (!stored.hasSameRules(variant)) {
+                    throw new IOException("El diario de jugadas es de la variante " + stored + ", no " + variant
+                            + ": " + path);
+                }
+                count = (long) LONG_VIEW.getAcquire(header, COUNT_OFFSET);
+            } else {
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putInt(8, EVENT_SIZE);
+                writeVariant(header, variant);
+                LONG_VIEW.setRelease(header, COUNT_OFFSET, 0L);
+            }
+
+            MoveJournal journal = new MoveJournal(channel, header, variant, count);
+            journal.nextSegment = CompletableFuture.completedFuture(
+                    mapSegment(channel, FileChannel.MapMode.READ_WRITE, count >>> SEGMENT_SHIFT, SEGMENT_BYTES));
+            journal.advance(count >>> SEGMENT_SHIFT);
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre un diario existente en modo lectura.
+     */
+    public static Reader openReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("El diario de jugadas está truncado (" + size + " bytes): " + path);
+            }
+            MappedByteBuffer header = mapHeader(channel, FileChannel.MapMode.READ_ONLY);
+            checkHeader(header, path);
+            Variant variant = readVariant(header, path);
+
+            long capacity = (size - HEADER_SIZE) / EVENT_SIZE;
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((capacity + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int k = 0; k < segments.length; k++) {
+                long events = Math.min(SEGMENT_EVENTS, capacity - ((long) k << SEGMENT_SHIFT));
+                segments[k] = mapSegment(channel, FileChannel.MapMode.READ_ONLY, k, events * EVENT_SIZE);
+            }
+            return new Reader(header, variant, segments, capacity);
+        }
+    }
+
+    private static void lock(FileChannel channel, Path path) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("El diario de jugadas ya está abierto por otro escritor: " + path);
+        }
+        // El bloqueo se libera al cerrar el canal
+    }
+
+    private static MappedByteBuffer mapHeader(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, 0, HEADER_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static MappedByteBuffer mapSegment(FileChannel channel, FileChannel.MapMode mode, long index, long bytes)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, HEADER_SIZE + index * SEGMENT_BYTES, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static void checkHeader(MappedByteBuffer buffer, Path path) throws IOException {
+        int version = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || (version != VERSION && version != FIRST_VERSION)
+                || buffer.getInt(8) != EVENT_SIZE) {
+            throw new IOException("El archivo no es un diario de jugadas válido: " + path);
+        }
+    }
+
+    private static void writeVariant(MappedByteBuffer header, Variant variant) {
+        int[] regionOf = new int[CELLS];
+        for (int k = 0; k < CELLS; k++) {
+            regionOf[variant.regionCells[k]] = k / Variant.SIZE;
+        }
+        for (int cell = 0; cell < CELLS; cell += 2) {
+            header.put(REGIONS_OFFSET + cell / 2, (byte) (regionOf[cell] | regionOf[cell + 1] << 4));
+        }
+
+        int extraCells = variant.unitCells.length - 3 * CELLS;
+        header.put(EXTRA_UNITS_OFFSET, (byte) (extraCells / Variant.SIZE));
+        for (int k = 0; k < extraCells; k++) {
+            header.put(UNITS_OFFSET + k, (byte) variant.unitCells[3 * CELLS + k]);
+        }
+    }
+
+    private static Variant readVariant(MappedByteBuffer header, Path path) throws IOException {
+        if (header.getInt(4) == FIRST_VERSION) {
+            return Variant.classic();
+        }
+
+        int extraUnits = header.get(EXTRA_UNITS_OFFSET);
+        if (extraUnits < 0 || extraUnits > MAX_EXTRA_UNITS) {
+            throw new IOException("La variante del diario de jugadas está dañada: " + path);
+        }
+        int[] regionOf = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            regionOf[cell] = (header.get(REGIONS_OFFSET + cell / 2) >> (cell % 2 * 4)) & 0x0F;
+        }
+        Variant variant;
+        try {
+            Variant.Builder builder = Variant.builder("Diario").regions(regionOf);
+            for (int unit = 0; unit < extraUnits; unit++) {
+                int[] cells = new int[Variant.SIZE];
+                for (int k = 0; k < Variant.SIZE; k++) {
+                    cells[k] = header.get(UNITS_OFFSET + unit * Variant.SIZE + k);
+                }
+                builder.addUnit(cells);
+            }
+            variant = builder.build();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("La variante del diario de jugadas está dañada: " + path, e);
+        }
+
+        // Las variantes predefinidas conservan su nombre
+        if (variant.hasSameRules(Variant.classic())) {
+            return Variant.classic();
+        } else if (variant.hasSameRules(Variant.diagonal())) {
+            return Variant.diagonal();
+        }
+        return variant;
+    }
+
+    /**
+     * @return reglas de los juegos registrados en este diario
+     */
+    public Variant getVariant() {
+        return variant;
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Registra el inicio de un juego con la solución completa y las celdas iniciales.
+     */
+    void appendNewGame(int[][] solution, boolean[][] initialCells) {
+        int base = beginEvent(EventType.NEW_GAME, 0, 0, 0);
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                int packed = solution[row][col] | (initialCells[row][col] ? INITIAL_FLAG : 0);
+                segment.put(base + PAYLOAD_OFFSET + row * 6 + col, (byte) packed);
+            }
+        }
+        commit();
+    }
+
+    void append(EventType type, int row, int col, int value) {
+        beginEvent(type, row, col, value);
+        commit();
+    }
+
+    /**
+     * Escribe la cabecera del evento número {@link #count}.
+     *
+     * @return posición del evento dentro de {@link #segment}
+     */
+    private int beginEvent(EventType type, int row, int col, int value) {
+        long index = count >>> SEGMENT_SHIFT;
+        if (index != segmentIndex) {
+            advance(index);
+        }
+        int base = (int) (count & SEGMENT_MASK) * EVENT_SIZE;
+        segment.putLong(base + TIMESTAMP_OFFSET, baseEpochNanos + (System.nanoTime() - baseNanoTime));
+        segment.putLong(base + SESSION_OFFSET, sessionId);
+        segment.put(base + TYPE_OFFSET, (byte) type.ordinal());
+        segment.put(base + ROW_OFFSET, (byte) row);
+        segment.put(base + COL_OFFSET, (byte) col);
+        segment.put(base + VALUE_OFFSET, (byte) value);
+        return base;
+    }
+
+    private void commit() {
+        count++;
+        LONG_VIEW.setRelease(header, COUNT_OFFSET, count);
+    }
+
+    /**
+     * Pasa al segmento ya mapeado en segundo plano y empieza a mapear el siguiente.
+     */
+    private void advance(long index) {
+        try {
+            segment = nextSegment.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("No se pudo ampliar el diario de jugadas", e.getCause());
+        }
+        segmentIndex = index;
+        writtenSegments.add(segment);
+
+        long next = index + 1;
+        nextSegment = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mapSegment(channel, FileChannel.MapMode.READ_WRITE, next, SEGMENT_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Vuelca las páginas modificadas al disco y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            nextSegment.join();
+        } catch (CompletionException e) {
+            // El segmento siguiente no llegó a usarse
+        }
+        for (MappedByteBuffer written : writtenSegments) {
+            written.force();
+        }
+        header.force();
+        channel.close();
+    }
+
+    /**
+     * Vista de solo lectura sobre un diario mapeado. Los accesores leen directamente
+     * del archivo mapeado, sin copiar los eventos.
+     */
+    public static final class Reader {
+
+        private final MappedByteBuffer header;
+        private final Variant variant;
+        private final MappedByteBuffer[] segments;
+        private final long capacity;
+
+        private Reader(MappedByteBuffer header, Variant variant, MappedByteBuffer[] segments, long capacity) {
+            this.header = header;
+            this.variant = variant;
+            this.segments = segments;
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return reglas de los juegos registrados, leídas de la cabecera
+         */
+        public Variant getVariant() {
+            return variant;
+        }
+
+        /**
+         * @return número de eventos publicados por el escritor y presentes en el archivo al abrirlo
+         */
+        public int size() {
+            long published = (long) LONG_VIEW.getAcquire(header, COUNT_OFFSET);
+            return (int) Math.min(Math.min(published, capacity), Integer.MAX_VALUE);
+        }
+
+        public long timestamp(int index) {
+            return segment(index).getLong(base(index) + TIMESTAMP_OFFSET);
+        }
+
+        public long sessionId(int index) {
+            return segment(index).getLong(base(index) + SESSION_OFFSET);
+        }
+
+        public EventType type(int index) {
+            return EventType.of(segment(index).get(base(index) + TYPE_OFFSET));
+        }
+
+        public int row(int index) {
+            return segment(index).get(base(index) + ROW_OFFSET);
+        }
+
+        public int col(int index) {
+            return segment(index).get(base(index) + COL_OFFSET);
+        }
+
+        public int value(int index) {
+            return segment(index).get(base(index) + VALUE_OFFSET);
+        }
+
+        /**
+         * Valor de la solución de una celda en un evento NEW_GAME.
+         */
+        public int solutionValue(int index, int row, int col) {
+            return segment(index).get(base(index) + PAYLOAD_OFFSET + row * 6 + col) & 0x0F;
+        }
+
+        /**
+         * Indica si la celda era inicial en un evento NEW_GAME.
+         */
+        public boolean isInitialCell(int index, int row, int col) {
+            return (segment(index).get(base(index) + PAYLOAD_OFFSET + row * 6 + col) & INITIAL_FLAG) != 0;
+        }
+
+        /**
+         * Reconstruye el estado de la sesión indicada tal como estaba en el instante dado.
+         *
+         * @param sessionId sesión a reproducir
+         * @param upToTimestamp marca de tiempo (epoch en nanosegundos) hasta la que se aplican eventos
+         * @return modelo con las reglas del diario y el estado reproducido, o {@code null} si la sesión
+         *         no inició ningún juego
+         */
+        public SudokuModel replay(long sessionId, long upToTimestamp) {
+            SudokuModel model = null;
+            int size = size();
+
+            for (int i = 0; i < size; i++) {
+                if (sessionId(i) != sessionId) {
+                    continue;
+                }
+                if (timestamp(i) > upToTimestamp) {
+                    break;
+                }
+
+                EventType type = type(i);
+                if (type == EventType.NEW_GAME) {
+                    model = new SudokuModel(variant);
+                    int[][] solution = new int[6][6];
+                    boolean[][] initial = new boolean[6][6];
+                    for (int row = 0; row < 6; row++) {
+                        for (int col = 0; col < 6; col++) {
+                            solution[row][col] = solutionValue(i, row, col);
+                            initial[row][col] = isInitialCell(i, row, col);
+                        }
+                    }
+                    model.restoreGame(solution, initial);
+                } else if (model != null) {
+                    switch (type) {
+                        case SET_VALUE:
+                            model.setValue(row(i), col(i), value(i));
+                            break;
+                        case HINT:
+                            model.consumeHint();
+                            break;
+                        case CLEAR:
+                            model.clearUserEntries();
+                            break;
+                        case VALIDATE:
+                            model.validateAndMarkErrors();
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            return model;
+        }
+
+        private MappedByteBuffer segment(int index) {
+            return segments[index >>> SEGMENT_SHIFT];
+        }
+
+        private static int base(int index) {
+            return (int) (index & SEGMENT_MASK) * EVENT_SIZE;
+        }
+    }
+}
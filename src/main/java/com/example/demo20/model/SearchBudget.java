@@ -0,0 +1,77 @@
+package com.example.demo20.model;
+
+import java.time.Duration;
+
+/**
+ * Límites de una búsqueda por backtracking: número máximo de nodos, fecha límite
+ * y señal de cancelación. Es inmutable y puede compartirse entre búsquedas.
+ */
+public final class SearchBudget {
+
+    /** Cada cuántos nodos se consultan el reloj y la cancelación. */
+    private static final int CHECK_INTERVAL_MASK = 0xFF;
+
+    private static final SearchBudget UNLIMITED = new SearchBudget(Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+    private final long maxNodes;
+    private final long deadlineNanos;
+    private final CancellationToken token;
+
+    private SearchBudget(long maxNodes, long deadlineNanos, CancellationToken token) {
+        this.maxNodes = maxNodes;
+        this.deadlineNanos = deadlineNanos;
+        this.token = token;
+    }
+
+    /**
+     * @return presupuesto sin límites
+     */
+    public static SearchBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Crea un presupuesto.
+     *
+     * @param maxNodes número máximo de nodos por búsqueda
+     * @param timeout  tiempo máximo desde ahora, o {@code null} para no limitar
+     * @param token    señal de cancelación, o {@code null}
+     */
+    public static SearchBudget of(long maxNodes, Duration timeout, CancellationToken token) {
+        long deadline = timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+        return new SearchBudget(maxNodes, deadline, token);
+    }
+
+    /**
+     * Devuelve un presupuesto con otro límite de nodos que comparte la fecha límite
+     * y la cancelación de este.
+     */
+    public SearchBudget withMaxNodes(long nodes) {
+        return new SearchBudget(Math.min(nodes, maxNodes), deadlineNanos, token);
+    }
+
+    /**
+     * @return número máximo de nodos por búsqueda
+     */
+    long maxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Comprueba si una búsqueda que lleva {@code nodes} nodos debe detenerse.
+     */
+    boolean isExhausted(long nodes) {
+        if (nodes > maxNodes) {
+            return true;
+        }
+        return (nodes & CHECK_INTERVAL_MASK) == 0 && isExpired();
+    }
+
+    /**
+     * @return {@code true} si pasó la fecha límite o se canceló, sin importar los nodos
+     */
+    public boolean isExpired() {
+        return (token != null && token.isCancelled())
+                || (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos > 0);
+    }
+}
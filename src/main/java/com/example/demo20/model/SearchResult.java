@@ -0,0 +1,15 @@
+package com.example.demo20.model;
+
+/**
+ * Resultado de una búsqueda con presupuesto.
+ */
+public enum SearchResult {
+    /** El tablero tiene exactamente una solución. */
+    UNIQUE,
+    /** El tablero tiene más de una solución. */
+    MULTIPLE,
+    /** El tablero no tiene solución. */
+    NO_SOLUTION,
+    /** El presupuesto se agotó o la búsqueda se canceló antes de llegar a una respuesta. */
+    UNKNOWN
+}
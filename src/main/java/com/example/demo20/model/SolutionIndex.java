@@ -0,0 +1,306 @@
+package com.example.demo20.model;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Índice precalculado de todas las soluciones de Sudoku 6x6 con bloques de 3x2.
+ *
+ * <p>Las soluciones se agrupan en órbitas bajo las transformaciones de {@link GridTransform}. El índice guarda un representante
+ * por órbita y el tamaño de la órbita. Para muestrear una solución uniforme se elige una órbita
+ * con probabilidad proporcional a su tamaño y se le aplica una transformación aleatoria:
+ * una búsqueda en un arreglo pequeño más una pasada de O(36).</p>
+ *
+ * <p>El índice se carga desde {@value #RESOURCE}. Para regenerarlo:
+ * {@code java -cp target/classes com.example.demo20.model.SolutionIndex src/main/resources/com/example/demo20/model/solution-index.bin}</p>
+ */
+public final class SolutionIndex {
+
+    static final String RESOURCE = "solution-index.bin";
+
+    private static final int MAGIC = 0x53444B49; // "SDKI"
+    private static final int SIZE = 6;
+    private static final int CELLS = SIZE * SIZE;
+
+    private final byte[][] representatives;
+    private final long[] cumulativeWeights;
+    private final long totalGrids;
+
+    private SolutionIndex(byte[][] representatives, long[] weights) {
+        this.representatives = representatives;
+        this.cumulativeWeights = new long[weights.length];
+        long total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulativeWeights[i] = total;
+        }
+        this.totalGrids = total;
+    }
+
+    private static final class Holder {
+        static final SolutionIndex INSTANCE = loadOrCompute();
+    }
+
+    /**
+     * @return el índice del proceso, cargado la primera vez que se pide
+     */
+    public static SolutionIndex get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return número de soluciones distintas cubiertas por el índice
+     */
+    public long getTotalGrids() {
+        return totalGrids;
+    }
+
+    /**
+     * @return número de soluciones esencialmente distintas (órbitas)
+     */
+    public int getClassCount() {
+        return representatives.length;
+    }
+
+    /**
+     * Escribe en {@code grid} una solución elegida de manera uniforme entre todas las posibles.
+     */
+    public void sample(Random random, int[][] grid) {
+        sample(random, new GridTransform(), grid);
+    }
+
+    /**
+     * Igual que {@link #sample(Random, int[][])}, reutilizando la transformación indicada.
+     */
+    public void sample(Random random, GridTransform transform, int[][] grid) {
+        long target = Math.floorMod(random.nextLong(), totalGrids);
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] <= target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        transform.randomize(random).apply(representatives[low], 0, grid);
+    }
+
+    private static SolutionIndex loadOrCompute() {
+        try (InputStream in = SolutionIndex.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                return read(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Índice de soluciones dañado, se recalcula: " + e.getMessage());
+        }
+        return compute();
+    }
+
+    private static SolutionIndex read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("formato desconocido");
+        }
+        int classes = in.readInt();
+        byte[][] grids = new byte[classes][CELLS];
+        long[] weights = new long[classes];
+        for (int i = 0; i < classes; i++) {
+            weights[i] = in.readLong();
+            in.readFully(grids[i]);
+        }
+        return new SolutionIndex(grids, weights);
+    }
+
+    private void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(representatives.length);
+        long previous = 0;
+        for (int i = 0; i < representatives.length; i++) {
+            out.writeLong(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+            out.write(representatives[i]);
+        }
+        out.flush();
+    }
+
+    /**
+     * Enumera todas las soluciones con la primera fila 1..6 (una por cada renombrado de dígitos)
+     * y las agrupa en órbitas.
+     */
+    static SolutionIndex compute() {
+        List<byte[]> normalized = new ArrayList<>();
+        byte[] grid = new byte[CELLS];
+        for (int col = 0; col < SIZE; col++) {
+            grid[col] = (byte) (col + 1);
+        }
+        enumerate(grid, SIZE, normalized);
+
+        GridSet seen = new GridSet(normalized.size());
+        List<byte[]> representatives = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        GridTransform transform = new GridTransform();
+        int[][] moved = new int[SIZE][SIZE];
+        byte[] image = new byte[CELLS];
+
+        for (byte[] candidate : normalized) {
+            if (seen.contains(candidate)) {
+                continue;
+            }
+            int orbit = 0;
+            for (int positions = 0; positions < GridTransform.POSITION_COUNT; positions++) {
+                transform.setPositions(positions).apply(candidate, 0, moved);
+                normalize(moved, image);
+                if (seen.add(image)) {
+                    orbit++;
+                }
+            }
+            representatives.add(candidate);
+            weights.add((long) orbit * 720); // cada solución normalizada representa 6! renombrados
+        }
+
+        long[] weightArray = new long[weights.size()];
+        for (int i = 0; i < weightArray.length; i++) {
+            weightArray[i] = weights.get(i);
+        }
+        return new SolutionIndex(representatives.toArray(new byte[0][]), weightArray);
+    }
+
+    private static void enumerate(byte[] grid, int cell, List<byte[]> out) {
+        if (cell == CELLS) {
+            out.add(grid.clone());
+            return;
+        }
+        int row = cell / SIZE;
+        int col = cell % SIZE;
+        for (int value = 1; value <= SIZE; value++) {
+            if (fits(grid, row, col, value)) {
+                grid[cell] = (byte) value;
+                enumerate(grid, cell + 1, out);
+                grid[cell] = 0;
+            }
+        }
+    }
+
+    private static boolean fits(byte[] grid, int row, int col, int value) {
+        for (int k = 0; k < SIZE; k++) {
+            if ((k < col && grid[row * SIZE + k] == value) || (k < row && grid[k * SIZE + col] == value)) {
+                return false;
+            }
+        }
+        int blockRow = (row / 2) * 2;
+        int blockCol = (col / 3) * 3;
+        for (int r = blockRow; r <= row; r++) {
+            for (int c = blockCol; c < blockCol + 3; c++) {
+                if ((r < row || c < col) && grid[r * SIZE + c] == value) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renombra los dígitos para que la primera fila sea 1..6 y empaqueta el tablero por filas.
+     */
+    private static void normalize(int[][] grid, byte[] target) {
+        byte[] relabel = new byte[SIZE + 1];
+        for (int col = 0; col < SIZE; col++) {
+            relabel[grid[0][col]] = (byte) (col + 1);
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            target[cell] = relabel[grid[cell / SIZE][cell % SIZE]];
+        }
+    }
+
+    /**
+     * Conjunto de tableros completos empaquetados en dos {@code long} (3 bits por celda), con
+     * direccionamiento abierto. Ninguna celda vale 0, así que la clave (0, 0) marca una posición libre.
+     */
+    private static final class GridSet {
+        private static final int CELLS_PER_WORD = CELLS / 2;
+
+        private final long[] lows;
+        private final long[] highs;
+        private final int mask;
+
+        GridSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 4 - 1);
+            this.lows = new long[capacity];
+            this.highs = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        boolean contains(byte[] grid) {
+            long low = pack(grid, 0);
+            long high = pack(grid, CELLS_PER_WORD);
+            for (int slot = slotOf(low, high); lows[slot] != 0; slot = (slot + 1) & mask) {
+                if (lows[slot] == low && highs[slot] == high) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return {@code true} si el tablero no estaba
+         */
+        boolean add(byte[] grid) {
+            long low = pack(grid, 0);
+            long high = pack(grid, CELLS_PER_WORD);
+            int slot = slotOf(low, high);
+            for (; lows[slot] != 0; slot = (slot + 1) & mask) {
+                if (lows[slot] == low && highs[slot] == high) {
+                    return false;
+                }
+            }
+            lows[slot] = low;
+            highs[slot] = high;
+            return true;
+        }
+
+        private static long pack(byte[] grid, int from) {
+            long packed = 0;
+            for (int k = 0; k < CELLS_PER_WORD; k++) {
+                packed |= (long) grid[from + k] << (k * 3);
+            }
+            return packed;
+        }
+
+        private int slotOf(long low, long high) {
+            long h = low * 0x9E3779B97F4A7C15L ^ high;
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            return (int) h & mask;
+        }
+    }
+
+    /**
+     * Genera el archivo del índice.
+     *
+     * @param args ruta de salida
+     */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        SolutionIndex index = compute();
+        Path output = Paths.get(args.length > 0 ? args[0] : RESOURCE);
+        try (OutputStream out = Files.newOutputStream(output)) {
+            index.write(out);
+        }
+        System.out.printf("%d soluciones en %d clases, calculadas en %d ms -> %s%n",
+                index.getTotalGrids(), index.getClassCount(), (System.nanoTime() - start) / 1_000_000, output);
+    }
+}
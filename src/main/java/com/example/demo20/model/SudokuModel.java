@@ -1,8 +1,14 @@
 package com.example.demo20.model;
 
+import com.example.demo20.jfr.CountSolutionsEvent;
+import com.example.demo20.jfr.GenerateBoardEvent;
+import com.example.demo20.jfr.HintEvent;
+import com.example.demo20.jfr.ValidateEvent;
+
 import java.time.Duration;
 import java.time.Instant;
-import java.util.*;
+import java.util.Arrays;
+import java.util.Random;
 
 public class SudokuModel {
 
@@ -12,21 +18,54 @@ public class SudokuModel {
     private static final int MIN_VALUE = 1;
     private static final int MAX_VALUE = 6;
     private static final int MAX_SELECTION_ATTEMPTS = 500;
+    private static final long CANDIDATE_NODE_LIMIT = 200_000; // nodos antes de abandonar un candidato
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
 
+    private final Variant variant;
     private int[][] grid;
     //hola
     private int[][] solutionGrid; // Guardar la solución completa
     private boolean[][] initialCells;
-    private boolean[][] errorCells;
+    private long errorMask; // un bit por celda (fila * 6 + columna) con valor en conflicto
     private int hintsRemaining;
     private Instant startTime;
     private boolean gameCompleted;
+    private int filledCells;
+    private int userEntries;
+    private int clueCount;
+    private Difficulty difficulty = Difficulty.EASY;
+    private Listener[] listeners = new Listener[0];
+    private MoveJournal journal;
+    private long searchNodes; // nodos visitados por la búsqueda en curso
+    private SearchBudget searchBudget = SearchBudget.unlimited();
+    private boolean searchAborted;
+    private boolean verbose = true; // informa cada generación por consola
+
+    // Búferes reutilizables para que generación, validación y ayudas no reserven memoria
+    private final Random random = new Random();
+    private final int[][] searchGrid = new int[GRID_SIZE][GRID_SIZE];
+    private final int[] searchCells = new int[CELL_COUNT]; // tablero plano del solucionador
+    private final int[] firstSolution = new int[CELL_COUNT]; // primera solución hallada por el solucionador
+    private final int[][] candidateOrder = new int[CELL_COUNT][GRID_SIZE]; // orden de números por profundidad
+    private final boolean[][] initialScratch = new boolean[GRID_SIZE][GRID_SIZE];
+    private final GridTransform transform = new GridTransform();
+    private boolean verifiedUnique; // el juego actual salió de una verificación de unicidad
+    private final int[] blockCells = new int[BLOCK_WIDTH * BLOCK_HEIGHT];
+    private final int[] emptyCells = new int[CELL_COUNT];
+    private final int[] validNumbers = new int[GRID_SIZE];
 
     public SudokuModel() {
+        this(Variant.classic());
+    }
+
+    /**
+     * Crea un modelo con las reglas de la variante indicada.
+     */
+    public SudokuModel(Variant variant) {
+        this.variant = variant;
         this.grid = new int[GRID_SIZE][GRID_SIZE];
         this.solutionGrid = new int[GRID_SIZE][GRID_SIZE];
         this.initialCells = new boolean[GRID_SIZE][GRID_SIZE];
-        this.errorCells = new boolean[GRID_SIZE][GRID_SIZE];
         this.hintsRemaining = 3;
         this.gameCompleted = false;
         initializeGrid();
@@ -37,24 +76,240 @@ public class SudokuModel {
             for (int j = 0; j < GRID_SIZE; j++) {
                 grid[i][j] = 0;
                 initialCells[i][j] = false;
-                errorCells[i][j] = false;
+            }
+        }
+        errorMask = 0;
+        filledCells = 0;
+        userEntries = 0;
+        clueCount = 0;
+    }
+
+    /**
+     * Recibe los cambios del modelo a medida que ocurren, en el hilo que modifica el modelo.
+     * Todos los métodos tienen una implementación vacía por omisión.
+     */
+    public interface Listener {
+        /** Cambió el valor de una celda (0 = vacía). */
+        default void cellChanged(int row, int col, int value) {
+        }
+
+        /**
+         * Cambió el estado de error de algunas celdas.
+         *
+         * @param changedCells un bit por celda ({@code fila * 6 + columna}) cuyo estado cambió
+         */
+        default void errorsChanged(long changedCells) {
+        }
+
+        default void hintsChanged(int hintsRemaining) {
+        }
+
+        /** El tablero quedó completo y sin errores. */
+        default void completed() {
+        }
+
+        /** Se reemplazó el tablero completo (juego nuevo o restaurado). */
+        default void gameStarted() {
+        }
+    }
+
+    public void addListener(Listener listener) {
+        Listener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[listeners.length] = listener;
+        listeners = next;
+    }
+
+    public void removeListener(Listener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                Listener[] next = new Listener[listeners.length - 1];
+                System.arraycopy(listeners, 0, next, 0, i);
+                System.arraycopy(listeners, i + 1, next, i, next.length - i);
+                listeners = next;
+                return;
             }
         }
     }
 
+    /**
+     * Asigna el diario donde se registran las acciones del juego, o {@code null} para no registrar.
+     *
+     * @throws IllegalArgumentException si el diario es de otra variante
+     */
+    public void setJournal(MoveJournal journal) {
+        if (journal != null && !journal.getVariant().hasSameRules(variant)) {
+            throw new IllegalArgumentException("El diario de jugadas es de la variante " + journal.getVariant()
+                    + ", no " + variant);
+        }
+        this.journal = journal;
+    }
+
+    /**
+     * Activa o desactiva los mensajes de la generación por consola. Los procesos que generan miles
+     * de tableros (simulaciones, exportación, pruebas) los desactivan en sus propios modelos.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
     public void startNewGame() {
+        startNewGame(SearchBudget.unlimited());
+    }
+
+    /**
+     * Inicia un juego nuevo sin superar el presupuesto de búsqueda indicado.
+     * Los candidatos que tardan demasiado en verificarse se abandonan y se prueba el siguiente.
+     * Los nodos de la solución completa y de todos los candidatos se suman contra el límite del
+     * presupuesto, así que este acota la generación entera y no cada candidato por separado.
+     *
+     * @param budget límite de nodos, fecha límite y cancelación para toda la generación
+     * @return {@link SearchResult#UNIQUE} si el tablero tiene solución única,
+     *         o el resultado de la verificación del último candidato si se agotaron los intentos o el
+     *         presupuesto y se usa ese tablero: {@link SearchResult#MULTIPLE} si tiene varias soluciones,
+     *         {@link SearchResult#UNKNOWN} si su búsqueda se abandonó por el límite de nodos, la fecha
+     *         límite o la cancelación. Si ni siquiera se completó la solución, el tablero queda vacío
+     *         y el resultado es {@link SearchResult#UNKNOWN}
+     */
+    public SearchResult startNewGame(SearchBudget budget) {
         initializeGrid();
-        generateInitialBoard();
+        SearchResult result = generateInitialBoard(budget);
+        this.verifiedUnique = result == SearchResult.UNIQUE;
         this.hintsRemaining = 3;
         this.startTime = Instant.now();
         this.gameCompleted = false;
+        recount();
+
+        if (journal != null && hasSolution()) {
+            journal.appendNewGame(solutionGrid, initialCells);
+        }
+        return result;
     }
 
-    private void generateInitialBoard() {
-        System.out.println("Generando Sudoku con solución única...");
+    /**
+     * Inicia un juego nuevo aplicando una {@link GridTransform} aleatoria a la solución y a las celdas
+     * iniciales del juego actual (en variantes no clásicas, solo un renombrado de dígitos). La transformación conserva la unicidad, así que el tablero derivado
+     * no se vuelve a verificar: cuesta un par de pasadas sobre las 36 celdas.
+     * Si el juego actual no tiene unicidad verificada, se genera uno nuevo con {@link #startNewGame(SearchBudget)}.
+     *
+     * @return el resultado de la generación; {@link SearchResult#UNIQUE} para un tablero derivado
+     */
+    public SearchResult startDerivedGame(SearchBudget budget) {
+        if (!verifiedUnique || !hasSolution()) {
+            return startNewGame(budget);
+        }
+
+        // Las permutaciones de filas y columnas solo conservan las reglas clásicas; el renombrado, todas
+        transform.setPositions(variant.isClassic() ? random.nextInt(GridTransform.POSITION_COUNT) : 0)
+                .setDigits(random.nextInt(GridTransform.DIGIT_COUNT));
+        for (int row = 0; row < GRID_SIZE; row++) {
+            System.arraycopy(solutionGrid[row], 0, searchGrid[row], 0, GRID_SIZE);
+            System.arraycopy(initialCells[row], 0, initialScratch[row], 0, GRID_SIZE);
+        }
+        transform.apply(searchGrid, solutionGrid);
+        transform.apply(initialScratch, initialCells);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                grid[row][col] = initialCells[row][col] ? solutionGrid[row][col] : 0;
+            }
+        }
+
+        this.hintsRemaining = 3;
+        this.startTime = Instant.now();
+        this.gameCompleted = false;
+        recount();
+
+        if (journal != null) {
+            journal.appendNewGame(solutionGrid, initialCells);
+        }
+        return SearchResult.UNIQUE;
+    }
+
+    /**
+     * La solución se rellena en orden y se limpia si la búsqueda falla,
+     * así que está completa si y solo si su primera celda tiene valor.
+     */
+    private boolean hasSolution() {
+        return solutionGrid[0][0] != 0;
+    }
+
+    /**
+     * Restaura un juego a partir de su solución y sus celdas iniciales (usado al reproducir el diario).
+     */
+    void restoreGame(int[][] solution, boolean[][] initial) {
+        initializeGrid();
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                solutionGrid[row][col] = solution[row][col];
+                initialCells[row][col] = initial[row][col];
+                grid[row][col] = initial[row][col] ? solution[row][col] : 0;
+            }
+        }
+        this.verifiedUnique = false;
+        this.hintsRemaining = 3;
+        this.startTime = Instant.now();
+        this.gameCompleted = false;
+        recount();
+    }
+
+    /**
+     * Recalcula los contadores tras reemplazar el tablero completo y avisa a los oyentes.
+     * Es la única pasada sobre las 36 celdas; las jugadas los actualizan de a una.
+     */
+    private void recount() {
+        filledCells = 0;
+        clueCount = 0;
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                if (grid[row][col] != 0) {
+                    filledCells++;
+                }
+                if (initialCells[row][col]) {
+                    clueCount++;
+                }
+            }
+        }
+        userEntries = filledCells - clueCount;
+        errorMask = 0;
+        // Al reemplazar el tablero solo quedan las celdas iniciales
+        difficulty = Difficulty.rate(variant, grid);
+
+        for (Listener listener : listeners) {
+            listener.gameStarted();
+        }
+    }
+
+    /**
+     * Descuenta una ayuda sin generar sugerencia (usado al reproducir el diario).
+     */
+    void consumeHint() {
+        if (hintsRemaining > 0) {
+            hintsRemaining--;
+            fireHintsChanged();
+        }
+    }
+
+    private SearchResult generateInitialBoard(SearchBudget budget) {
+        if (verbose) {
+            System.out.println("Generando Sudoku con solución única...");
+        }
+        GenerateBoardEvent event = new GenerateBoardEvent();
+        event.begin();
 
         // Paso 1: Generar UNA solución completa y válida
-        generateCompleteSolution();
+        searchNodes = 0;
+        if (!generateCompleteSolution(budget)) {
+            if (verbose) {
+                System.out.println("⚠ Presupuesto agotado antes de completar la solución.");
+            }
+            for (int i = 0; i < GRID_SIZE; i++) {
+                Arrays.fill(solutionGrid[i], 0);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+            return SearchResult.UNKNOWN;
+        }
 
         // Paso 2: Guardar la solución completa
         for (int i = 0; i < GRID_SIZE; i++) {
@@ -62,10 +317,13 @@ public class SudokuModel {
         }
 
         // Paso 3: Intentar diferentes selecciones de celdas iniciales
+        // (siempre al menos una, para que el tablero sea jugable aunque el presupuesto ya esté agotado)
         int attempts = 0;
         boolean foundUnique = false;
+        SearchResult result;
+        long nodesUsed = searchNodes; // total de la generación, incluida la solución completa
 
-        while (!foundUnique && attempts < MAX_SELECTION_ATTEMPTS) {
+        do {
             attempts++;
 
             // Restaurar la solución completa al grid
@@ -83,46 +341,48 @@ public class SudokuModel {
             // Seleccionar 2 números por cada bloque 3x2
             selectInitialCells();
 
-            // Verificar si tiene solución única
-            if (hasUniqueSolution()) {
+            // Verificar si tiene solución única; si el candidato agota su presupuesto, se pasa al siguiente
+            long candidateNodes = Math.min(CANDIDATE_NODE_LIMIT, Math.max(0, budget.maxNodes() - nodesUsed));
+            result = checkUniqueness(budget.withMaxNodes(candidateNodes));
+            nodesUsed += searchNodes;
+            if (result == SearchResult.UNIQUE) {
                 foundUnique = true;
-                System.out.println("✓ Sudoku con solución única encontrado en intento #" + attempts);
+                if (verbose) {
+                    System.out.println("✓ Sudoku con solución única encontrado en intento #" + attempts);
+                }
             }
-        }
+        } while (!foundUnique && attempts < MAX_SELECTION_ATTEMPTS && nodesUsed < budget.maxNodes()
+                && !budget.isExpired());
 
-        if (!foundUnique) {
+        if (!foundUnique && verbose) {
             System.out.println("⚠ No se encontró solución única en " + attempts + " intentos. Usando el último generado.");
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.attempts = attempts;
+            event.uniqueFound = foundUnique;
+            event.commit();
+        }
+
+        // Resultado del último candidato, que es el tablero que queda en juego
+        return result;
     }
 
     private void selectInitialCells() {
-        Random random = new Random();
-
-        int[][] blockStarts = {
-                {0, 0}, {0, 3},  // Bloques superiores
-                {2, 0}, {2, 3},  // Bloques medios
-                {4, 0}, {4, 3}   // Bloques inferiores
-        };
-
-        // Para cada bloque, seleccionar 2 posiciones aleatorias
-        for (int[] blockStart : blockStarts) {
-            int startRow = blockStart[0];
-            int startCol = blockStart[1];
-
-            // Crear lista de todas las posiciones en este bloque
-            List<int[]> blockPositions = new ArrayList<>();
-            for (int r = startRow; r < startRow + BLOCK_HEIGHT; r++) {
-                for (int c = startCol; c < startCol + BLOCK_WIDTH; c++) {
-                    blockPositions.add(new int[]{r, c});
-                }
-            }
-
-            // Mezclar y seleccionar las primeras 2 posiciones
-            Collections.shuffle(blockPositions, random);
+        // Para cada región (bloque 3x2 en el juego clásico), seleccionar 2 posiciones aleatorias
+        for (int region = 0; region < GRID_SIZE; region++) {
+            // Posiciones de la región como índices fila * 6 + columna
+            int n = GRID_SIZE;
+            System.arraycopy(variant.regionCells, region * GRID_SIZE, blockCells, 0, n);
 
+            // Mezclar parcialmente y seleccionar las primeras 2 posiciones
             for (int i = 0; i < 2; i++) {
-                int[] pos = blockPositions.get(i);
-                initialCells[pos[0]][pos[1]] = true;
+                int j = i + random.nextInt(n - i);
+                int pos = blockCells[j];
+                blockCells[j] = blockCells[i];
+                blockCells[i] = pos;
+                initialCells[pos / GRID_SIZE][pos % GRID_SIZE] = true;
             }
         }
 
@@ -137,147 +397,194 @@ public class SudokuModel {
     }
 
     /**
-     * Verifica si el tablero actual tiene exactamente una solución única
+     * Verifica si el tablero actual tiene exactamente una solución, sin superar el presupuesto.
+     *
+     * <p>No se guardan resultados: en un 6x6 la búsqueda cuesta unos 18 µs, menos que calcular una
+     * clave canónica del tablero (mínimo entre sus 3456 transformaciones de posición), y los
+     * candidatos aleatorios casi nunca se repiten aun en forma canónica.</p>
      */
-    private boolean hasUniqueSolution() {
-        int[][] gridCopy = copyGrid();
-        int solutionCount = countSolutions(gridCopy, 0, 0, 0);
-        return solutionCount == 1;
+    private SearchResult checkUniqueness(SearchBudget budget) {
+        for (int row = 0; row < GRID_SIZE; row++) {
+            System.arraycopy(grid[row], 0, searchCells, row * GRID_SIZE, GRID_SIZE);
+        }
+        return searchSolutions(budget);
     }
 
     /**
-     * Cuenta el número de soluciones posibles del tablero usando backtracking
+     * Verifica, sin tocar el juego actual, si un tablero de pistas tiene solución única
+     * con las reglas de este modelo. Lo usan los procesos masivos que revisan tableros generados.
+     *
+     * @param clues    pistas (0 = vacía)
+     * @param solution si no es {@code null} y el resultado es {@link SearchResult#UNIQUE}, recibe la solución
+     * @param budget   límite de la búsqueda
      */
-    private int countSolutions(int[][] tempGrid, int row, int col, int count) {
-        // Optimización: si ya encontramos más de 1 solución, detener
-        if (count > 1) {
-            return count;
+    public SearchResult verifyPuzzle(int[][] clues, int[][] solution, SearchBudget budget) {
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                int value = clues[row][col];
+                if (value != 0 && (value < MIN_VALUE || value > MAX_VALUE || !variant.fits(clues, row, col, value))) {
+                    return SearchResult.NO_SOLUTION;
+                }
+                searchCells[row * GRID_SIZE + col] = value;
+            }
         }
 
-        // Si llegamos al final del tablero, encontramos una solución
-        if (row == GRID_SIZE) {
-            return count + 1;
+        SearchResult result = searchSolutions(budget);
+        if (result == SearchResult.UNIQUE && solution != null) {
+            for (int row = 0; row < GRID_SIZE; row++) {
+                System.arraycopy(firstSolution, row * GRID_SIZE, solution[row], 0, GRID_SIZE);
+            }
         }
+        return result;
+    }
 
-        // Calcular siguiente posición
-        int nextRow = (col == GRID_SIZE - 1) ? row + 1 : row;
-        int nextCol = (col == GRID_SIZE - 1) ? 0 : col + 1;
+    /**
+     * @return nodos visitados por la última búsqueda (medida aproximada de la dificultad)
+     */
+    public long getLastSearchNodes() {
+        return searchNodes;
+    }
 
-        // Si la celda ya tiene un valor, pasar a la siguiente
-        if (tempGrid[row][col] != 0) {
-            return countSolutions(tempGrid, nextRow, nextCol, count);
-        }
+    /**
+     * Cuenta hasta dos soluciones de {@link #searchCells}.
+     */
+    private SearchResult searchSolutions(SearchBudget budget) {
+        CountSolutionsEvent event = new CountSolutionsEvent();
+        event.begin();
+        searchBudget = budget;
+        searchNodes = 0;
+        searchAborted = false;
 
-        // Probar todos los números posibles
-        for (int num = MIN_VALUE; num <= MAX_VALUE; num++) {
-            if (isValidPlacementInGrid(tempGrid, row, col, num)) {
-                tempGrid[row][col] = num;
-                count = countSolutions(tempGrid, nextRow, nextCol, count);
-                tempGrid[row][col] = 0; // Backtrack
+        int solutionCount = countSolutions(0, 0);
 
-                // Si ya encontramos múltiples soluciones, no seguir buscando
-                if (count > 1) {
-                    return count;
-                }
-            }
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodesVisited = searchNodes;
+            event.solutionsFound = solutionCount;
+            event.aborted = searchAborted;
+            event.commit();
         }
 
-        return count;
+        if (searchAborted) {
+            return SearchResult.UNKNOWN;
+        } else if (solutionCount == 0) {
+            return SearchResult.NO_SOLUTION;
+        }
+        return solutionCount == 1 ? SearchResult.UNIQUE : SearchResult.MULTIPLE;
     }
 
     /**
-     * Valida si un número puede colocarse en una posición específica de un grid temporal
+     * Cuenta el número de soluciones posibles de {@link #searchCells} usando backtracking.
+     * Cada prueba recorre los vecinos compilados de la celda en la {@link Variant}.
      */
-    private boolean isValidPlacementInGrid(int[][] tempGrid, int row, int col, int number) {
-        // Verificar fila
-        for (int c = 0; c < GRID_SIZE; c++) {
-            if (c != col && tempGrid[row][c] == number) {
-                return false;
-            }
+    private int countSolutions(int cell, int count) {
+        if (searchBudget.isExhausted(++searchNodes)) {
+            searchAborted = true;
+            return count;
         }
 
-        // Verificar columna
-        for (int r = 0; r < GRID_SIZE; r++) {
-            if (r != row && tempGrid[r][col] == number) {
-                return false;
+        // Optimización: si ya encontramos más de 1 solución, detener
+        if (count > 1) {
+            return count;
+        }
+
+        // Si llegamos al final del tablero, encontramos una solución
+        if (cell == CELL_COUNT) {
+            if (count == 0) {
+                System.arraycopy(searchCells, 0, firstSolution, 0, CELL_COUNT);
             }
+            return count + 1;
         }
 
-        // Verificar bloque 3x2
-        int blockStartRow = (row / BLOCK_HEIGHT) * BLOCK_HEIGHT;
-        int blockStartCol = (col / BLOCK_WIDTH) * BLOCK_WIDTH;
+        // Si la celda ya tiene un valor, pasar a la siguiente
+        if (searchCells[cell] != 0) {
+            return countSolutions(cell + 1, count);
+        }
 
-        for (int r = blockStartRow; r < blockStartRow + BLOCK_HEIGHT; r++) {
-            for (int c = blockStartCol; c < blockStartCol + BLOCK_WIDTH; c++) {
-                if ((r != row || c != col) && tempGrid[r][c] == number) {
-                    return false;
+        // Probar todos los números posibles
+        for (int num = MIN_VALUE; num <= MAX_VALUE; num++) {
+            if (variant.fits(searchCells, cell, num)) {
+                searchCells[cell] = num;
+                count = countSolutions(cell + 1, count);
+                searchCells[cell] = 0; // Backtrack
+
+                // Si ya encontramos múltiples soluciones o se agotó el presupuesto, no seguir buscando
+                if (count > 1 || searchAborted) {
+                    return count;
                 }
             }
         }
 
-        return true;
+        return count;
     }
 
     /**
-     * Crea una copia del grid actual
+     * Genera un tablero de Sudoku 6x6 completo y válido, elegido de manera uniforme
+     * entre todas las soluciones mediante el {@link SolutionIndex}: sin búsqueda, solo una
+     * transformación aleatoria de una solución representativa.
+     *
+     * @return {@code false} si el presupuesto ya expiró o fue cancelado
      */
-    private int[][] copyGrid() {
-        int[][] copy = new int[GRID_SIZE][GRID_SIZE];
-        for (int i = 0; i < GRID_SIZE; i++) {
-            System.arraycopy(grid[i], 0, copy[i], 0, GRID_SIZE);
+    private boolean generateCompleteSolution(SearchBudget budget) {
+        if (budget.isExpired()) {
+            for (int i = 0; i < GRID_SIZE; i++) {
+                Arrays.fill(grid[i], 0);
+            }
+            return false;
+        }
+        if (variant.isClassic()) {
+            SolutionIndex.get().sample(random, transform, grid);
+            return true;
         }
-        return copy;
-    }
 
-    /**
-     * Genera un tablero de Sudoku 6x6 completo y válido usando backtracking
-     */
-    private void generateCompleteSolution() {
-        // Limpiar el tablero
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                grid[i][j] = 0;
+        // Otras variantes: llenar con backtracking aleatorio sobre los vecinos compilados
+        searchBudget = budget;
+        searchNodes = 0;
+        searchAborted = false;
+        Arrays.fill(searchCells, 0);
+        boolean filled = fillRandomized(0);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            if (filled) {
+                System.arraycopy(searchCells, row * GRID_SIZE, grid[row], 0, GRID_SIZE);
+            } else {
+                Arrays.fill(grid[row], 0);
             }
         }
-
-        // Llenar con backtracking
-        fillGridRandomized(0, 0);
+        return filled;
     }
 
     /**
-     * Llena el tablero recursivamente con números aleatorios válidos
+     * Llena {@link #searchCells} desde {@code cell} con números aleatorios válidos
      */
-    private boolean fillGridRandomized(int row, int col) {
-        // Si llegamos al final del tablero, hemos terminado
-        if (row == GRID_SIZE) {
+    private boolean fillRandomized(int cell) {
+        if (cell == CELL_COUNT) {
             return true;
         }
+        if (searchBudget.isExhausted(++searchNodes)) {
+            searchAborted = true;
+            return false;
+        }
 
-        // Calcular la siguiente posición
-        int nextRow = (col == GRID_SIZE - 1) ? row + 1 : row;
-        int nextCol = (col == GRID_SIZE - 1) ? 0 : col + 1;
-
-        // Crear lista de números del 1 al 6 en orden aleatorio
-        List<Integer> numbers = new ArrayList<>();
-        for (int i = MIN_VALUE; i <= MAX_VALUE; i++) {
-            numbers.add(i);
+        // Números del 1 al 6 en orden aleatorio, en el búfer de esta profundidad
+        int[] numbers = candidateOrder[cell];
+        for (int i = 0; i < GRID_SIZE; i++) {
+            int j = random.nextInt(i + 1);
+            numbers[i] = numbers[j];
+            numbers[j] = MIN_VALUE + i;
         }
-        Collections.shuffle(numbers, new Random());
 
-        // Probar cada número en orden aleatorio
         for (int num : numbers) {
-            if (isValidPlacement(row, col, num)) {
-                grid[row][col] = num;
-
-                if (fillGridRandomized(nextRow, nextCol)) {
+            if (variant.fits(searchCells, cell, num)) {
+                searchCells[cell] = num;
+                if (fillRandomized(cell + 1)) {
                     return true;
                 }
-
-                // Backtrack
-                grid[row][col] = 0;
+                searchCells[cell] = 0; // Backtrack
+                if (searchAborted) {
+                    return false;
+                }
             }
         }
-
         return false;
     }
 
@@ -285,41 +592,8 @@ public class SudokuModel {
         if (number < MIN_VALUE || number > MAX_VALUE) {
             return false;
         }
-
-        int originalValue = grid[row][col];
-        grid[row][col] = 0;
-
-        // Verificar fila
-        for (int c = 0; c < GRID_SIZE; c++) {
-            if (grid[row][c] == number) {
-                grid[row][col] = originalValue;
-                return false;
-            }
-        }
-
-        // Verificar columna
-        for (int r = 0; r < GRID_SIZE; r++) {
-            if (grid[r][col] == number) {
-                grid[row][col] = originalValue;
-                return false;
-            }
-        }
-
-        // Verificar bloque 3x2
-        int blockStartRow = (row / BLOCK_HEIGHT) * BLOCK_HEIGHT;
-        int blockStartCol = (col / BLOCK_WIDTH) * BLOCK_WIDTH;
-
-        for (int r = blockStartRow; r < blockStartRow + BLOCK_HEIGHT; r++) {
-            for (int c = blockStartCol; c < blockStartCol + BLOCK_WIDTH; c++) {
-                if (grid[r][c] == number) {
-                    grid[row][col] = originalValue;
-                    return false;
-                }
-            }
-        }
-
-        grid[row][col] = originalValue;
-        return true;
+        // Los vecinos compilados excluyen la celda misma, así que su valor actual no cuenta
+        return variant.fits(grid, row, col, number);
     }
 
     public boolean setValue(int row, int col, int value) {
@@ -327,193 +601,221 @@ public class SudokuModel {
             return false;
         }
 
-        if (value == 0) {
-            grid[row][col] = 0;
-            errorCells[row][col] = false;
-            return true;
-        }
-
-        if (value < MIN_VALUE || value > MAX_VALUE) {
+        if (value != 0 && (value < MIN_VALUE || value > MAX_VALUE)) {
             return false;
         }
 
-        grid[row][col] = value;
-        validateAndMarkErrors();
+        putValue(row, col, value);
+        markErrors();
         checkGameCompletion();
 
+        if (journal != null) {
+            journal.append(MoveJournal.EventType.SET_VALUE, row, col, value);
+        }
         return true;
     }
 
     public void validateAndMarkErrors() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                errorCells[i][j] = false;
-            }
+        markErrors();
+        if (journal != null) {
+            journal.append(MoveJournal.EventType.VALIDATE, 0, 0, 0);
         }
+    }
 
-        // Validar filas
-        for (int row = 0; row < GRID_SIZE; row++) {
-            Set<Integer> seen = new HashSet<>();
-            for (int col = 0; col < GRID_SIZE; col++) {
-                int value = grid[row][col];
-                if (value != 0) {
-                    if (seen.contains(value)) {
-                        for (int c = 0; c < GRID_SIZE; c++) {
-                            if (grid[row][c] == value) {
-                                errorCells[row][c] = true;
-                            }
-                        }
-                    } else {
-                        seen.add(value);
-                    }
-                }
-            }
+    /**
+     * Escribe el valor de una celda editable, actualiza los contadores y avisa a los oyentes.
+     */
+    private void putValue(int row, int col, int value) {
+        int previous = grid[row][col];
+        if (previous == value) {
+            return;
         }
-
-        // Validar columnas
-        for (int col = 0; col < GRID_SIZE; col++) {
-            Set<Integer> seen = new HashSet<>();
-            for (int row = 0; row < GRID_SIZE; row++) {
-                int value = grid[row][col];
-                if (value != 0) {
-                    if (seen.contains(value)) {
-                        for (int r = 0; r < GRID_SIZE; r++) {
-                            if (grid[r][col] == value) {
-                                errorCells[r][col] = true;
-                            }
-                        }
-                    } else {
-                        seen.add(value);
-                    }
-                }
-            }
+        grid[row][col] = value;
+        if (previous == 0) {
+            filledCells++;
+            userEntries++;
+        } else if (value == 0) {
+            filledCells--;
+            userEntries--;
         }
 
-        // Validar bloques 3x2
-        int[][] blockStarts = {
-                {0, 0}, {0, 3},
-                {2, 0}, {2, 3},
-                {4, 0}, {4, 3}
-        };
-
-        for (int[] blockStart : blockStarts) {
-            int startRow = blockStart[0];
-            int startCol = blockStart[1];
-
-            Set<Integer> seen = new HashSet<>();
-            List<int[]> positions = new ArrayList<>();
-
-            for (int r = startRow; r < startRow + 2; r++) {
-                for (int c = startCol; c < startCol + 3; c++) {
-                    int value = grid[r][c];
-                    if (value != 0) {
-                        positions.add(new int[]{r, c, value});
-                    }
-                }
-            }
+        for (Listener listener : listeners) {
+            listener.cellChanged(row, col, value);
+        }
+    }
 
-            for (int[] pos : positions) {
-                int value = pos[2];
-                if (seen.contains(value)) {
-                    for (int[] p : positions) {
-                        if (p[2] == value) {
-                            errorCells[p[0]][p[1]] = true;
-                        }
-                    }
-                } else {
-                    seen.add(value);
-                }
+    private void markErrors() {
+        ValidateEvent event = new ValidateEvent();
+        event.begin();
+        long found = findErrors();
+        event.end();
+        if (event.shouldCommit()) {
+            event.errorCells = Long.bitCount(found);
+            event.commit();
+        }
+
+        long changed = found ^ errorMask;
+        errorMask = found;
+        if (changed != 0) {
+            for (Listener listener : listeners) {
+                listener.errorsChanged(changed);
             }
         }
     }
 
+    /**
+     * @return un bit por celda con un valor repetido en alguna unidad de la variante
+     */
+    private long findErrors() {
+        return variant.findConflicts(grid);
+    }
+
     public int[] getHint() {
         if (hintsRemaining <= 0) {
             return null;
         }
 
-        List<int[]> emptyCells = new ArrayList<>();
+        HintEvent event = new HintEvent();
+        event.begin();
+        int[] hint = findHint();
+        event.end();
+        if (event.shouldCommit()) {
+            event.found = hint != null;
+            event.row = hint != null ? hint[0] : -1;
+            event.col = hint != null ? hint[1] : -1;
+            event.commit();
+        }
+        return hint;
+    }
+
+    private int[] findHint() {
+        int count = 0;
 
         for (int row = 0; row < GRID_SIZE; row++) {
             for (int col = 0; col < GRID_SIZE; col++) {
                 if (grid[row][col] == 0 && !isInitialCell(row, col)) {
-                    emptyCells.add(new int[]{row, col});
+                    emptyCells[count++] = row * GRID_SIZE + col;
                 }
             }
         }
 
-        if (emptyCells.isEmpty()) {
-            return null;
-        }
-
-        Random random = new Random();
-        Collections.shuffle(emptyCells, random);
+        // Recorrer las celdas vacías en orden aleatorio (mezcla de Fisher-Yates sobre la marcha)
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(count - i);
+            int cell = emptyCells[j];
+            emptyCells[j] = emptyCells[i];
+            emptyCells[i] = cell;
 
-        for (int[] cell : emptyCells) {
-            int row = cell[0];
-            int col = cell[1];
+            int row = cell / GRID_SIZE;
+            int col = cell % GRID_SIZE;
 
-            List<Integer> validNumbers = new ArrayList<>();
+            int valid = 0;
             for (int num = MIN_VALUE; num <= MAX_VALUE; num++) {
                 if (isValidPlacement(row, col, num)) {
-                    validNumbers.add(num);
+                    validNumbers[valid++] = num;
                 }
             }
 
-            if (!validNumbers.isEmpty()) {
+            if (valid > 0) {
                 hintsRemaining--;
-                return new int[]{row, col, validNumbers.get(random.nextInt(validNumbers.size()))};
+                fireHintsChanged();
+                int number = validNumbers[random.nextInt(valid)];
+                if (journal != null) {
+                    journal.append(MoveJournal.EventType.HINT, row, col, number);
+                }
+                return new int[]{row, col, number};
             }
         }
 
         return null;
     }
 
-    private void checkGameCompletion() {
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int col = 0; col < GRID_SIZE; col++) {
-                if (grid[row][col] == 0) {
-                    gameCompleted = false;
-                    return;
-                }
-            }
+    private void fireHintsChanged() {
+        for (Listener listener : listeners) {
+            listener.hintsChanged(hintsRemaining);
         }
+    }
 
-        validateAndMarkErrors();
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int col = 0; col < GRID_SIZE; col++) {
-                if (errorCells[row][col]) {
-                    gameCompleted = false;
-                    return;
-                }
+    /**
+     * Se llama después de {@link #markErrors()}: con los contadores al día la comprobación es O(1).
+     */
+    private void checkGameCompletion() {
+        boolean completed = filledCells == CELL_COUNT && errorMask == 0;
+        if (completed && !gameCompleted) {
+            gameCompleted = true;
+            for (Listener listener : listeners) {
+                listener.completed();
             }
+        } else {
+            gameCompleted = completed;
         }
-
-        gameCompleted = true;
     }
 
     public void clearUserEntries() {
         for (int row = 0; row < GRID_SIZE; row++) {
             for (int col = 0; col < GRID_SIZE; col++) {
                 if (!initialCells[row][col]) {
-                    grid[row][col] = 0;
-                    errorCells[row][col] = false;
+                    putValue(row, col, 0);
                 }
             }
         }
+        markErrors();
         gameCompleted = false;
+
+        if (journal != null) {
+            journal.append(MoveJournal.EventType.CLEAR, 0, 0, 0);
+        }
+    }
+
+    public Variant getVariant() {
+        return variant;
     }
 
     public int getValue(int row, int col) {
         return grid[row][col];
     }
 
+    /**
+     * @return valor de la celda en la solución del juego actual (0 si no hay juego)
+     */
+    public int getSolutionValue(int row, int col) {
+        return solutionGrid[row][col];
+    }
+
     public boolean isInitialCell(int row, int col) {
         return initialCells[row][col];
     }
 
     public boolean hasError(int row, int col) {
-        return errorCells[row][col];
+        return (errorMask & (1L << (row * GRID_SIZE + col))) != 0;
+    }
+
+    /**
+     * @return celdas con valor, incluidas las iniciales
+     */
+    public int getFilledCount() {
+        return filledCells;
+    }
+
+    /**
+     * @return celdas llenadas por el jugador (sin contar las iniciales)
+     */
+    public int getUserEntryCount() {
+        return userEntries;
+    }
+
+    /**
+     * @return celdas marcadas con error en la última validación
+     */
+    public int getConflictCount() {
+        return Long.bitCount(errorMask);
+    }
+
+    /**
+     * @return dificultad estimada del juego actual según sus celdas iniciales (ver {@link Difficulty#rate})
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
     }
 
     public int getHintsRemaining() {
@@ -0,0 +1,307 @@
+package com.example.demo20.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reglas de una variante de Sudoku 6x6: qué grupos de celdas (unidades) deben contener los
+ * seis números sin repetir.
+ *
+ * <p>Toda variante tiene filas, columnas y una partición del tablero en seis regiones (los
+ * bloques 3x2 en el juego clásico, formas irregulares en un rompecabezas). Además puede declarar
+ * unidades extra, como las diagonales o ventanas.</p>
+ *
+ * <p>Al construirse, la variante se compila en tablas planas de índices que comparten el
+ * validador, el solucionador y el generador:</p>
+ * <ul>
+ *     <li>{@link #unitCells}: las celdas de cada unidad, seis por unidad;</li>
+ *     <li>{@link #peers}: para cada celda, las otras celdas con las que comparte alguna unidad,
+ *     en formato comprimido ({@link #peerStart} marca dónde empieza cada celda);</li>
+ *     <li>{@link #regionCells}: las celdas de cada región, seis por región.</li>
+ * </ul>
+ * <p>Comprobar una jugada cuesta un recorrido por los vecinos de la celda, sin importar cuántas
+ * unidades tenga la variante. Las instancias son inmutables.</p>
+ */
+public final class Variant {
+
+    static final int SIZE = 6;
+    static final int CELLS = SIZE * SIZE;
+
+    private static final Variant CLASSIC = builder("Clásico").build();
+    private static final Variant DIAGONAL = builder("Diagonal")
+            .addUnit(0, 7, 14, 21, 28, 35)
+            .addUnit(5, 10, 15, 20, 25, 30)
+            .build();
+
+    private final String name;
+    private final boolean classic;
+    final int unitCount;
+    final int[] unitCells;
+    final int[] regionCells;
+    final int[] peerStart;
+    final int[] peers;
+    final int[] peerRows;
+    final int[] peerCols;
+
+    private Variant(String name, int[] regionOf, List<int[]> extraUnits) {
+        this.name = name;
+
+        this.regionCells = new int[CELLS];
+        int[] filled = new int[SIZE];
+        for (int cell = 0; cell < CELLS; cell++) {
+            int region = regionOf[cell];
+            regionCells[region * SIZE + filled[region]++] = cell;
+        }
+
+        this.unitCount = 3 * SIZE + extraUnits.size();
+        this.unitCells = new int[unitCount * SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int k = 0; k < SIZE; k++) {
+                unitCells[i * SIZE + k] = i * SIZE + k;                  // fila i
+                unitCells[(SIZE + i) * SIZE + k] = k * SIZE + i;         // columna i
+            }
+        }
+        System.arraycopy(regionCells, 0, unitCells, 2 * SIZE * SIZE, CELLS);
+        for (int u = 0; u < extraUnits.size(); u++) {
+            System.arraycopy(extraUnits.get(u), 0, unitCells, (3 * SIZE + u) * SIZE, SIZE);
+        }
+
+        // Vecinos: unión de las unidades de cada celda, sin la celda misma ni repetidos
+        this.peerStart = new int[CELLS + 1];
+        long[] peerMasks = new long[CELLS];
+        for (int u = 0; u < unitCount; u++) {
+            long unitMask = 0;
+            for (int k = 0; k < SIZE; k++) {
+                unitMask |= 1L << unitCells[u * SIZE + k];
+            }
+            for (int k = 0; k < SIZE; k++) {
+                int cell = unitCells[u * SIZE + k];
+                peerMasks[cell] |= unitMask & ~(1L << cell);
+            }
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            peerStart[cell + 1] = peerStart[cell] + Long.bitCount(peerMasks[cell]);
+        }
+        this.peers = new int[peerStart[CELLS]];
+        for (int cell = 0, i = 0; cell < CELLS; cell++) {
+            for (long mask = peerMasks[cell]; mask != 0; mask &= mask - 1) {
+                peers[i++] = Long.numberOfTrailingZeros(mask);
+            }
+        }
+        this.peerRows = new int[peers.length];
+        this.peerCols = new int[peers.length];
+        for (int i = 0; i < peers.length; i++) {
+            peerRows[i] = peers[i] / SIZE;
+            peerCols[i] = peers[i] % SIZE;
+        }
+
+        this.classic = extraUnits.isEmpty() && Arrays.equals(regionOf, classicRegions());
+    }
+
+    /**
+     * @return reglas clásicas: filas, columnas y bloques 3x2
+     */
+    public static Variant classic() {
+        return CLASSIC;
+    }
+
+    /**
+     * @return reglas clásicas más las dos diagonales principales
+     */
+    public static Variant diagonal() {
+        return DIAGONAL;
+    }
+
+    /**
+     * Rompecabezas: filas, columnas y seis regiones irregulares.
+     *
+     * @param regionOf región (0 a 5) de cada celda, fila por fila
+     */
+    public static Variant jigsaw(String name, int[] regionOf) {
+        return builder(name).regions(regionOf).build();
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return {@code true} si son las reglas clásicas; solo entonces valen el índice de soluciones
+     *         y las transformaciones de posición de {@link GridTransform}
+     */
+    public boolean isClassic() {
+        return classic;
+    }
+
+    /**
+     * @return {@code true} si las dos variantes tienen las mismas unidades, sin importar el nombre
+     */
+    boolean hasSameRules(Variant other) {
+        return Arrays.equals(unitCells, other.unitCells);
+    }
+
+    /**
+     * @return número de unidades: 18 más las extra
+     */
+    public int getUnitCount() {
+        return unitCount;
+    }
+
+    /**
+     * @return número de vecinos de una celda
+     */
+    public int getPeerCount(int row, int col) {
+        int cell = row * SIZE + col;
+        return peerStart[cell + 1] - peerStart[cell];
+    }
+
+    /**
+     * Comprueba si {@code number} puede ir en {@code cell} de un tablero plano de 36 celdas.
+     */
+    boolean fits(int[] cells, int cell, int number) {
+        for (int i = peerStart[cell], end = peerStart[cell + 1]; i < end; i++) {
+            if (cells[peers[i]] == number) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Igual que {@link #fits(int[], int, int)} para un tablero por filas.
+     */
+    boolean fits(int[][] grid, int row, int col, int number) {
+        int cell = row * SIZE + col;
+        for (int i = peerStart[cell], end = peerStart[cell + 1]; i < end; i++) {
+            if (grid[peerRows[i]][peerCols[i]] == number) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return un bit por celda ({@code fila * 6 + columna}) con un valor repetido en alguna unidad
+     */
+    long findConflicts(int[][] grid) {
+        long errors = 0;
+        for (int base = 0; base < unitCells.length; base += SIZE) {
+            // Dos máscaras de bits por unidad: valores vistos y valores repetidos
+            int seen = 0;
+            int duplicated = 0;
+            for (int k = base; k < base + SIZE; k++) {
+                int cell = unitCells[k];
+                int value = grid[cell / SIZE][cell % SIZE];
+                if (value != 0) {
+                    int bit = 1 << value;
+                    duplicated |= seen & bit;
+                    seen |= bit;
+                }
+            }
+            if (duplicated != 0) {
+                for (int k = base; k < base + SIZE; k++) {
+                    int cell = unitCells[k];
+                    if ((duplicated & (1 << grid[cell / SIZE][cell % SIZE])) != 0) {
+                        errors |= 1L << cell;
+                    }
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Verifica un tablero completo empaquetado en 36 bytes con las reglas de esta variante.
+     */
+    public boolean isSolved(byte[] board, int offset) {
+        for (int base = 0; base < unitCells.length; base += SIZE) {
+            int mask = 0;
+            for (int k = base; k < base + SIZE; k++) {
+                int value = board[offset + unitCells[k]];
+                mask |= (value >= 1 && value <= SIZE) ? 1 << value : 0x80;
+            }
+            if (mask != BoardVerifier.FULL_MASK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static int[] classicRegions() {
+        int[] regionOf = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            regionOf[cell] = (cell / SIZE / 2) * 2 + (cell % SIZE) / 3;
+        }
+        return regionOf;
+    }
+
+    /**
+     * Declara las unidades de una variante y la compila con {@link #build()}.
+     */
+    public static final class Builder {
+        private final String name;
+        private int[] regionOf = classicRegions();
+        private final List<int[]> extraUnits = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Reemplaza los bloques 3x2 por otra partición en seis regiones de seis celdas.
+         *
+         * @param regionOf región (0 a 5) de cada celda, fila por fila
+         */
+        public Builder regions(int[] regionOf) {
+            if (regionOf.length != CELLS) {
+                throw new IllegalArgumentException("Se esperaban 36 celdas y hay " + regionOf.length);
+            }
+            int[] sizes = new int[SIZE];
+            for (int region : regionOf) {
+                if (region < 0 || region >= SIZE) {
+                    throw new IllegalArgumentException("Región fuera de rango: " + region);
+                }
+                sizes[region]++;
+            }
+            for (int region = 0; region < SIZE; region++) {
+                if (sizes[region] != SIZE) {
+                    throw new IllegalArgumentException("La región " + region + " tiene " + sizes[region] + " celdas");
+                }
+            }
+            this.regionOf = regionOf.clone();
+            return this;
+        }
+
+        /**
+         * Agrega una unidad extra (diagonal, ventana...) de seis celdas distintas.
+         */
+        public Builder addUnit(int... cells) {
+            if (cells.length != SIZE) {
+                throw new IllegalArgumentException("Una unidad tiene 6 celdas, no " + cells.length);
+            }
+            long seen = 0;
+            for (int cell : cells) {
+                if (cell < 0 || cell >= CELLS || (seen & (1L << cell)) != 0) {
+                    throw new IllegalArgumentException("Celda inválida o repetida en la unidad: " + cell);
+                }
+                seen |= 1L << cell;
+            }
+            extraUnits.add(cells.clone());
+            return this;
+        }
+
+        public Variant build() {
+            return new Variant(name, regionOf, extraUnits);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo20.model;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+
+import static com.example.demo20.model.BoardVerifier.BOARD_BYTES;
+import static com.example.demo20.model.BoardVerifier.FULL_MASK;
+import static com.example.demo20.model.BoardVerifier.UNITS;
+
+/**
+ * Implementación SIMD de {@link BoardVerifier}. Solo se carga si el módulo
+ * {@code jdk.incubator.vector} está presente.
+ *
+ * <p>Cada carril procesa un tablero distinto: los tableros de un bloque se trasponen a un
+ * búfer ordenado por celda, se convierte cada valor en su bit y se combinan con OR las seis
+ * celdas de cada unidad. Un tablero es válido si las 18 unidades dan {@code 0x7E}.</p>
+ */
+final class VectorBoardVerifier {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    /** Búfer traspuesto por hilo: celda × carril. */
+    private static final ThreadLocal<byte[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new byte[BOARD_BYTES * LANES]);
+
+    private VectorBoardVerifier() {
+    }
+
+    static int verify(byte[] boards, int offset, int count, boolean[] results) {
+        byte[] cells = SCRATCH.get();
+        int valid = 0;
+        int b = 0;
+
+        for (; b + LANES <= count; b += LANES) {
+            for (int lane = 0; lane < LANES; lane++) {
+                int base = offset + (b + lane) * BOARD_BYTES;
+                for (int cell = 0; cell < BOARD_BYTES; cell++) {
+                    cells[cell * LANES + lane] = boards[base + cell];
+                }
+            }
+            valid += verifyBlock(cells, results, b);
+        }
+
+        // Resto que no llena un vector completo
+        for (; b < count; b++) {
+            results[b] = BoardVerifier.isValid(boards, offset + b * BOARD_BYTES);
+            if (results[b]) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    static int verify(ByteBuffer boards, int offset, int count, boolean[] results) {
+        byte[] cells = SCRATCH.get();
+        int valid = 0;
+        int b = 0;
+
+        for (; b + LANES <= count; b += LANES) {
+            for (int lane = 0; lane < LANES; lane++) {
+                int base = offset + (b + lane) * BOARD_BYTES;
+                for (int cell = 0; cell < BOARD_BYTES; cell++) {
+                    cells[cell * LANES + lane] = boards.get(base + cell);
+                }
+            }
+            valid += verifyBlock(cells, results, b);
+        }
+
+        for (; b < count; b++) {
+            results[b] = BoardVerifier.isValid(boards, offset + b * BOARD_BYTES);
+            if (results[b]) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Verifica {@link #LANES} tableros traspuestos y escribe sus resultados desde {@code first}.
+     */
+    private static int verifyBlock(byte[] cells, boolean[] results, int first) {
+        ByteVector one = ByteVector.broadcast(SPECIES, (byte) 1);
+        VectorMask<Byte> ok = SPECIES.maskAll(true);
+
+        // Los valores fuera de 1..6 invalidan el tablero; después el desplazamiento es seguro
+        for (int cell = 0; cell < BOARD_BYTES; cell++) {
+            ByteVector v = ByteVector.fromArray(SPECIES, cells, cell * LANES);
+            ok = ok.and(v.compare(VectorOperators.GE, (byte) 1))
+                    .and(v.compare(VectorOperators.LE, (byte) 6));
+        }
+
+        for (int[] unit : UNITS) {
+            ByteVector mask = ByteVector.zero(SPECIES);
+            for (int cell : unit) {
+                ByteVector v = ByteVector.fromArray(SPECIES, cells, cell * LANES);
+                mask = mask.or(one.lanewise(VectorOperators.LSHL, v));
+            }
+            ok = ok.and(mask.compare(VectorOperators.EQ, (byte) FULL_MASK));
+        }
+
+        for (int lane = 0; lane < LANES; lane++) {
+            results[first + lane] = ok.laneIsSet(lane);
+        }
+        return ok.trueCount();
+    }
+}
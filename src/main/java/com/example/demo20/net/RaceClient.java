@@ -0,0 +1,223 @@
+package com.example.demo20.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Cliente no bloqueante de las carreras. Un hilo propio atiende el selector y
+ * entrega los mensajes del servidor al {@link Listener}.
+ */
+public final class RaceClient implements AutoCloseable {
+
+    private static final int BUFFER_CAPACITY = 16 * 1024;
+
+    /**
+     * Recibe los mensajes del servidor, siempre en el hilo del cliente.
+     */
+    public interface Listener {
+        void onPuzzle(int playerId, int raceId, byte[] clues);
+
+        void onProgress(int playerId, int cell, int value, int millis);
+
+        void onResult(int playerId, boolean valid, int millis);
+    }
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final Listener listener;
+    private final Thread thread;
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_CAPACITY);
+    private ByteBuffer out = ByteBuffer.allocate(BUFFER_CAPACITY); // protegido por this
+    private final byte[] clues = new byte[RaceProtocol.CELLS];
+    private volatile boolean running = true;
+    private volatile boolean writePending;
+    private volatile int playerId;
+    private volatile int raceId;
+
+    private RaceClient(SocketChannel channel, Selector selector, Listener listener) {
+        this.channel = channel;
+        this.selector = selector;
+        this.listener = listener;
+        this.thread = new Thread(this::loop, "race-client");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Se conecta al servidor y empieza a recibir mensajes.
+     */
+    public static RaceClient connect(InetSocketAddress address, Listener listener) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        Selector selector = Selector.open();
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            boolean connected = channel.connect(address);
+            channel.register(selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+
+            RaceClient client = new RaceClient(channel, selector, listener);
+            client.thread.start();
+            return client;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return identificador asignado por el servidor, o 0 si aún no llegó el tablero
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * @return carrera del último tablero recibido, o 0 si aún no llegó ninguno
+     */
+    public int getRaceId() {
+        return raceId;
+    }
+
+    /**
+     * Envía una jugada en la carrera actual; el valor 0 borra la celda.
+     */
+    public void sendMove(int cell, int value) {
+        synchronized (this) {
+            reserve(RaceProtocol.MOVE_SIZE);
+            RaceProtocol.putMove(out, raceId, cell, value);
+        }
+        requestWrite();
+    }
+
+    /**
+     * Declara el tablero de la carrera actual terminado para que el servidor lo verifique.
+     */
+    public void sendComplete() {
+        synchronized (this) {
+            reserve(RaceProtocol.COMPLETE_SIZE);
+            RaceProtocol.putComplete(out, raceId);
+        }
+        requestWrite();
+    }
+
+    /**
+     * Amplía el búfer de salida si el mensaje no cabe: una ráfaga de jugadas más rápida que la red
+     * se acumula aquí hasta que el hilo del cliente la envía.
+     */
+    private void reserve(int size) {
+        if (out.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + size));
+            out.flip();
+            larger.put(out);
+            out = larger;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        channel.close();
+    }
+
+    private void requestWrite() {
+        writePending = true;
+        selector.wakeup();
+    }
+
+    private void loop() {
+        try {
+            while (running) {
+                selector.select();
+                SelectionKey key = channel.keyFor(selector);
+                if (key == null || !key.isValid()) {
+                    break;
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey selected = keys.next();
+                    keys.remove();
+                    if (selected.isConnectable() && channel.finishConnect()) {
+                        selected.interestOps(SelectionKey.OP_READ);
+                        writePending = true; // enviar lo encolado antes de conectar
+                    }
+                    if (selected.isValid() && selected.isReadable() && !read()) {
+                        return;
+                    }
+                }
+
+                if (channel.isConnected() && (writePending || (key.interestOps() & SelectionKey.OP_WRITE) != 0)) {
+                    writePending = false;
+                    write(key);
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("Conexión con el servidor de carreras perdida: " + e.getMessage());
+            }
+        } finally {
+            try {
+                selector.close();
+                channel.close();
+            } catch (IOException ignored) {
+                // ya se está cerrando
+            }
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        synchronized (this) {
+            out.flip();
+            channel.write(out);
+            boolean pending = out.hasRemaining();
+            out.compact();
+            key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * @return {@code false} si el servidor cerró la conexión
+     */
+    private boolean read() throws IOException {
+        if (channel.read(in) < 0) {
+            return false;
+        }
+
+        in.flip();
+        while (in.hasRemaining()) {
+            byte type = in.get(in.position());
+            int size = RaceProtocol.sizeOf(type);
+            if (size < 0) {
+                throw new IOException("Mensaje desconocido del servidor: " + type);
+            }
+            if (in.remaining() < size) {
+                break;
+            }
+            in.get();
+            switch (type) {
+                case RaceProtocol.PUZZLE:
+                    playerId = in.getInt();
+                    raceId = in.getInt();
+                    in.get(clues);
+                    listener.onPuzzle(playerId, raceId, clues.clone());
+                    break;
+                case RaceProtocol.PROGRESS:
+                    listener.onProgress(in.getInt(), in.get(), in.get(), in.getInt());
+                    break;
+                case RaceProtocol.RESULT:
+                    listener.onResult(in.getInt(), in.get() != 0, in.getInt());
+                    break;
+                default:
+                    throw new IOException("Mensaje inesperado del servidor: " + type);
+            }
+        }
+        in.compact();
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo20.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Protocolo binario de las carreras multijugador. Cada mensaje empieza con un byte de tipo
+ * y tiene tamaño fijo según ese tipo, así que no hace falta prefijo de longitud.
+ *
+ * <pre>
+ * PUZZLE   servidor → cliente  tipo, jugador (int), carrera (int), 36 celdas iniciales (0 = vacía)
+ * MOVE     cliente → servidor  tipo, carrera (int), celda (0..35), valor (0..6)
+ * PROGRESS servidor → clientes tipo, jugador (int), celda, valor, milisegundos desde el inicio (int)
+ * COMPLETE cliente → servidor  tipo, carrera (int)
+ * RESULT   servidor → clientes tipo, jugador (int), válido (byte), milisegundos desde el inicio (int)
+ * </pre>
+ *
+ * <p>Las jugadas y los avisos de fin llevan la carrera a la que se refieren: el servidor descarta
+ * los que llegan después de que empezó otra.</p>
+ */
+final class RaceProtocol {
+
+    static final byte PUZZLE = 1;
+    static final byte MOVE = 2;
+    static final byte PROGRESS = 3;
+    static final byte COMPLETE = 4;
+    static final byte RESULT = 5;
+
+    static final int CELLS = 36;
+
+    static final int PUZZLE_SIZE = 1 + 4 + 4 + CELLS;
+    static final int MOVE_SIZE = 1 + 4 + 1 + 1;
+    static final int PROGRESS_SIZE = 1 + 4 + 1 + 1 + 4;
+    static final int COMPLETE_SIZE = 1 + 4;
+    static final int RESULT_SIZE = 1 + 4 + 1 + 4;
+
+    private RaceProtocol() {
+    }
+
+    /**
+     * @return tamaño del mensaje del tipo indicado, o -1 si el tipo no existe
+     */
+    static int sizeOf(byte type) {
+        switch (type) {
+            case PUZZLE:
+                return PUZZLE_SIZE;
+            case MOVE:
+                return MOVE_SIZE;
+            case PROGRESS:
+                return PROGRESS_SIZE;
+            case COMPLETE:
+                return COMPLETE_SIZE;
+            case RESULT:
+                return RESULT_SIZE;
+            default:
+                return -1;
+        }
+    }
+
+    static void putPuzzle(ByteBuffer out, int playerId, int raceId, byte[] clues) {
+        out.put(PUZZLE).putInt(playerId).putInt(raceId).put(clues, 0, CELLS);
+    }
+
+    static void putMove(ByteBuffer out, int raceId, int cell, int value) {
+        out.put(MOVE).putInt(raceId).put((byte) cell).put((byte) value);
+    }
+
+    static void putProgress(ByteBuffer out, int playerId, int cell, int value, int millis) {
+        out.put(PROGRESS).putInt(playerId).put((byte) cell).put((byte) value).putInt(millis);
+    }
+
+    static void putComplete(ByteBuffer out, int raceId) {
+        out.put(COMPLETE).putInt(raceId);
+    }
+
+    static void putResult(ByteBuffer out, int playerId, boolean valid, int millis) {
+        out.put(RESULT).putInt(playerId).put((byte) (valid ? 1 : 0)).putInt(millis);
+    }
+}
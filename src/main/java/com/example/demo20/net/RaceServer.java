@@ -0,0 +1,433 @@
+package com.example.demo20.net;
+
+import com.example.demo20.model.BoardVerifier;
+import com.example.demo20.model.SudokuModel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor de carreras: varios jugadores resuelven a la vez el mismo tablero.
+ * El servidor envía el tablero a cada jugador, retransmite cada jugada como un delta
+ * compacto (jugador, celda, valor, tiempo) y verifica el tablero del jugador cuando
+ * este declara que terminó.
+ *
+ * <p>Un hilo acepta conexiones y las reparte entre varios hilos de E/S, cada uno con su
+ * propio {@link Selector}. Cada conexión tiene un búfer de salida acotado: si un cliente
+ * lento lo llena, se le desconecta en lugar de bloquear al resto.</p>
+ */
+public final class RaceServer implements AutoCloseable {
+
+    private static final int INBOUND_CAPACITY = 256;
+    private static final int OUTBOUND_CAPACITY = 16 * 1024;
+
+    private final ServerSocketChannel serverChannel;
+    private final Worker[] workers;
+    private final Thread acceptThread;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextPlayerId = new AtomicInteger(1);
+    private final AtomicInteger nextRaceId = new AtomicInteger(1);
+    private volatile Race race;
+    private volatile boolean running = true;
+
+    /**
+     * Carrera en curso: inmutable, se reemplaza completa al iniciar otra.
+     */
+    private static final class Race {
+        final int id;
+        final byte[] clues;
+        final long startNanos;
+
+        Race(int id, byte[] clues) {
+            this.id = id;
+            this.clues = clues;
+            this.startNanos = System.nanoTime();
+        }
+
+        int elapsedMillis() {
+            return (int) ((System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    private RaceServer(ServerSocketChannel serverChannel, int ioThreads) throws IOException {
+        this.serverChannel = serverChannel;
+        this.workers = new Worker[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            workers[i] = new Worker(i);
+        }
+        this.acceptThread = new Thread(this::acceptLoop, "race-accept");
+        this.acceptThread.setDaemon(true);
+    }
+
+    /**
+     * Abre el servidor y empieza una carrera con el tablero actual del modelo.
+     *
+     * @param address   dirección local (puerto 0 para uno libre)
+     * @param ioThreads número de hilos de E/S con selector propio
+     * @param puzzle    modelo con un juego iniciado
+     */
+    public static RaceServer start(InetSocketAddress address, int ioThreads, SudokuModel puzzle) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.bind(address, 1024);
+            RaceServer server = new RaceServer(channel, ioThreads);
+            server.startRace(puzzle);
+            for (Worker worker : server.workers) {
+                worker.thread.start();
+            }
+            server.acceptThread.start();
+            return server;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("El servidor está cerrado", e);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Inicia una carrera nueva con las celdas iniciales del modelo y la envía a todos los jugadores.
+     */
+    public void startRace(SudokuModel puzzle) {
+        byte[] clues = new byte[RaceProtocol.CELLS];
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                if (puzzle.isInitialCell(row, col)) {
+                    clues[row * 6 + col] = (byte) puzzle.getValue(row, col);
+                }
+            }
+        }
+
+        Race next = new Race(nextRaceId.getAndIncrement(), clues);
+        race = next;
+        for (Connection connection : connections) {
+            connection.joinRace(next);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverChannel.close();
+        for (Worker worker : workers) {
+            worker.selector.wakeup();
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Worker worker = workers[next];
+                next = (next + 1) % workers.length;
+                worker.register(new Connection(channel, worker, nextPlayerId.getAndIncrement()));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error aceptando conexión: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void broadcastProgress(int playerId, int cell, int value, int millis) {
+        for (Connection connection : connections) {
+            connection.sendProgress(playerId, cell, value, millis);
+        }
+    }
+
+    private void broadcastResult(int playerId, boolean valid, int millis) {
+        for (Connection connection : connections) {
+            connection.sendResult(playerId, valid, millis);
+        }
+    }
+
+    /**
+     * Hilo de E/S con su propio selector.
+     */
+    private final class Worker {
+        final Selector selector;
+        final Thread thread;
+        final Queue<Connection> registrations = new ConcurrentLinkedQueue<>();
+        final Queue<Connection> flushes = new ConcurrentLinkedQueue<>();
+        final boolean[] verification = new boolean[1];
+
+        Worker(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this::loop, "race-io-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void register(Connection connection) {
+            registrations.add(connection);
+            selector.wakeup();
+        }
+
+        void requestFlush(Connection connection) {
+            flushes.add(connection);
+            selector.wakeup();
+        }
+
+        private void loop() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerPending();
+                    flushPending();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        if (!key.isValid()) {
+                            connection.close();
+                            continue;
+                        }
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error en el selector del servidor: " + e.getMessage());
+            } finally {
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // ya se está cerrando
+                }
+            }
+        }
+
+        private void registerPending() {
+            Connection connection;
+            while ((connection = registrations.poll()) != null) {
+                try {
+                    connection.key = connection.channel.register(selector, SelectionKey.OP_READ, connection);
+                    connections.add(connection);
+                    connection.joinRace(race);
+                } catch (ClosedChannelException e) {
+                    connection.close();
+                }
+            }
+        }
+
+        private void flushPending() {
+            Connection connection;
+            while ((connection = flushes.poll()) != null) {
+                connection.flush();
+            }
+        }
+    }
+
+    /**
+     * Estado de un jugador conectado.
+     */
+    private final class Connection {
+        final SocketChannel channel;
+        final Worker worker;
+        final int playerId;
+        final ByteBuffer in = ByteBuffer.allocate(INBOUND_CAPACITY);
+        final ByteBuffer out = ByteBuffer.allocate(OUTBOUND_CAPACITY); // protegido por this
+        final AtomicBoolean flushScheduled = new AtomicBoolean();
+        final byte[] board = new byte[RaceProtocol.CELLS];
+        SelectionKey key;
+        Race currentRace;
+        boolean finished;
+        volatile boolean closed;
+
+        Connection(SocketChannel channel, Worker worker, int playerId) {
+            this.channel = channel;
+            this.worker = worker;
+            this.playerId = playerId;
+        }
+
+        /**
+         * Reinicia el tablero del jugador y le envía el nuevo tablero.
+         */
+        void joinRace(Race next) {
+            synchronized (this) {
+                currentRace = next;
+                finished = false;
+                System.arraycopy(next.clues, 0, board, 0, RaceProtocol.CELLS);
+                if (!reserve(RaceProtocol.PUZZLE_SIZE)) {
+                    return;
+                }
+                RaceProtocol.putPuzzle(out, playerId, next.id, next.clues);
+            }
+            scheduleFlush();
+        }
+
+        void sendProgress(int player, int cell, int value, int millis) {
+            synchronized (this) {
+                if (!reserve(RaceProtocol.PROGRESS_SIZE)) {
+                    return;
+                }
+                RaceProtocol.putProgress(out, player, cell, value, millis);
+            }
+            scheduleFlush();
+        }
+
+        void sendResult(int player, boolean valid, int millis) {
+            synchronized (this) {
+                if (!reserve(RaceProtocol.RESULT_SIZE)) {
+                    return;
+                }
+                RaceProtocol.putResult(out, player, valid, millis);
+            }
+            scheduleFlush();
+        }
+
+        /**
+         * Comprueba que quepa el mensaje; si el cliente no consume su búfer, se le desconecta.
+         */
+        private boolean reserve(int size) {
+            if (closed) {
+                return false;
+            }
+            if (out.remaining() < size) {
+                System.err.println("Jugador " + playerId + " desconectado: no consume los mensajes a tiempo.");
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        private void scheduleFlush() {
+            if (flushScheduled.compareAndSet(false, true)) {
+                worker.requestFlush(this);
+            }
+        }
+
+        /**
+         * Se ejecuta solo en el hilo del worker.
+         */
+        void flush() {
+            flushScheduled.set(false);
+            if (closed || key == null) {
+                return;
+            }
+            try {
+                synchronized (this) {
+                    out.flip();
+                    channel.write(out);
+                    boolean pending = out.hasRemaining();
+                    out.compact();
+                    key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+            }
+        }
+
+        /**
+         * Se ejecuta solo en el hilo del worker.
+         */
+        void read() {
+            try {
+                if (channel.read(in) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+
+            in.flip();
+            while (in.hasRemaining()) {
+                byte type = in.get(in.position());
+                int size = RaceProtocol.sizeOf(type);
+                if (size < 0 || (type != RaceProtocol.MOVE && type != RaceProtocol.COMPLETE)) {
+                    close();
+                    return;
+                }
+                if (in.remaining() < size) {
+                    break;
+                }
+                in.get();
+                int raceId = in.getInt();
+                if (type == RaceProtocol.MOVE) {
+                    handleMove(raceId, in.get(), in.get());
+                } else {
+                    handleComplete(raceId);
+                }
+            }
+            in.compact();
+        }
+
+        private void handleMove(int raceId, int cell, int value) {
+            Race playing;
+            synchronized (this) {
+                playing = currentRace;
+                if (finished || raceId != playing.id || cell < 0 || cell >= RaceProtocol.CELLS || value < 0 || value > 6
+                        || playing.clues[cell] != 0) {
+                    return;
+                }
+                board[cell] = (byte) value;
+            }
+            broadcastProgress(playerId, cell, value, playing.elapsedMillis());
+        }
+
+        private void handleComplete(int raceId) {
+            Race playing;
+            boolean valid;
+            synchronized (this) {
+                playing = currentRace;
+                if (finished || raceId != playing.id) {
+                    return;
+                }
+                valid = BoardVerifier.verify(board, 0, 1, worker.verification) == 1;
+                finished = valid;
+            }
+            broadcastResult(playerId, valid, playing.elapsedMillis());
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connections.remove(this);
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // la conexión ya no se usa
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo20.perf;
+
+/**
+ * Búfer circular de duraciones en nanosegundos.
+ * Guarda las últimas muestras sin reservar memoria después de construirse.
+ * No es seguro entre hilos: se usa solo desde el hilo de JavaFX.
+ */
+public final class LatencyRing {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    public LatencyRing(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void add(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return la última muestra registrada, o 0 si no hay muestras
+     */
+    public long last() {
+        if (size == 0) {
+            return 0;
+        }
+        return samples[(next - 1 + samples.length) % samples.length];
+    }
+
+    public long mean() {
+        if (size == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += samples[i];
+        }
+        return total / size;
+    }
+
+    public long max() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo20.perf;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recolector de métricas de rendimiento para el panel de diagnóstico.
+ * Mientras está desactivado, {@link #start()} devuelve 0 y {@link #record(Metric, long)}
+ * no hace nada, de modo que el coste en el camino de entrada es una sola comprobación.
+ * Todas las llamadas se hacen desde el hilo de JavaFX.
+ */
+public final class PerformanceSampler {
+
+    private static final int RING_CAPACITY = 120;
+    private static final PerformanceSampler INSTANCE = new PerformanceSampler();
+
+    /**
+     * Métricas medidas en la aplicación.
+     */
+    public enum Metric {
+        /** Intervalo entre pulsos consecutivos de JavaFX. */
+        FRAME,
+        /** Duración de CSS y layout dentro de un pulso. */
+        PULSE,
+        /** Latencia de {@code startNewGame()}. */
+        NEW_GAME,
+        /** Latencia de {@code setValue} más la validación por pulsación. */
+        SET_VALUE,
+        /** Duración de una pasada del actualizador de la vista (textos y estilos pendientes). */
+        RESTYLE
+    }
+
+    private final Map<Metric, LatencyRing> rings = new EnumMap<>(Metric.class);
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private boolean enabled;
+    private long gameStartNanos;
+    private long gameStartAllocated;
+    private long gameStartGcCount;
+    private long gameStartGcMillis;
+
+    private PerformanceSampler() {
+        for (Metric metric : Metric.values()) {
+            rings.put(metric, new LatencyRing(RING_CAPACITY));
+        }
+    }
+
+    public static PerformanceSampler get() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            for (LatencyRing ring : rings.values()) {
+                ring.clear();
+            }
+            markGameStart();
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Marca el inicio de una operación medida.
+     *
+     * @return instante en nanosegundos, o 0 si el muestreo está desactivado
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Registra la duración de una operación iniciada con {@link #start()}.
+     */
+    public void record(Metric metric, long startNanos) {
+        if (startNanos != 0) {
+            rings.get(metric).add(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Registra una duración ya calculada.
+     */
+    public void recordDuration(Metric metric, long nanos) {
+        if (enabled) {
+            rings.get(metric).add(nanos);
+        }
+    }
+
+    public LatencyRing ring(Metric metric) {
+        return rings.get(metric);
+    }
+
+    /**
+     * Reinicia los contadores de asignación y GC al comenzar un juego nuevo.
+     */
+    public void markGameStart() {
+        gameStartNanos = System.nanoTime();
+        gameStartAllocated = currentThreadAllocatedBytes();
+        gameStartGcCount = totalGcCount();
+        gameStartGcMillis = totalGcMillis();
+    }
+
+    public long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Tasa de asignación del hilo de JavaFX desde el último juego nuevo, en bytes por segundo.
+     */
+    public double allocationRateSinceGameStart() {
+        long allocated = currentThreadAllocatedBytes() - gameStartAllocated;
+        long elapsed = System.nanoTime() - gameStartNanos;
+        if (elapsed <= 0 || allocated < 0) {
+            return 0;
+        }
+        return allocated * 1_000_000_000.0 / elapsed;
+    }
+
+    public long gcCountSinceGameStart() {
+        return totalGcCount() - gameStartGcCount;
+    }
+
+    public long gcMillisSinceGameStart() {
+        return totalGcMillis() - gameStartGcMillis;
+    }
+
+    private long currentThreadAllocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private long totalGcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            total += Math.max(0, bean.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            total += Math.max(0, bean.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo20.sim;
+
+import java.time.Duration;
+
+/**
+ * Lectura de duraciones en las opciones de las herramientas de línea de comandos
+ * ({@link LoadSimulation}, {@code PuzzleExport}).
+ */
+public final class Durations {
+
+    private Durations() {
+    }
+
+    /**
+     * Lee una duración como {@code 30s}, {@code 5m} o {@code 2h}; sin sufijo, el número se toma
+     * como segundos.
+     *
+     * @throws NumberFormatException si el texto no es un número entero con sufijo opcional
+     */
+    public static Duration parse(String text) {
+        char unit = text.isEmpty() ? '0' : text.charAt(text.length() - 1);
+        switch (unit) {
+            case 's':
+                return Duration.ofSeconds(amount(text));
+            case 'm':
+                return Duration.ofMinutes(amount(text));
+            case 'h':
+                return Duration.ofHours(amount(text));
+            default:
+                return Duration.ofSeconds(Long.parseLong(text));
+        }
+    }
+
+    private static long amount(String text) {
+        return Long.parseLong(text.substring(0, text.length() - 1));
+    }
+}
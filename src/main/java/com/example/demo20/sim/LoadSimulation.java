@@ -0,0 +1,356 @@
+package com.example.demo20.sim;
+
+import com.example.demo20.model.SudokuModel;
+import com.example.demo20.stats.LongHistogram;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga y prueba de resistencia para el motor del juego.
+ * Simula miles de jugadores concurrentes, cada uno con su propio {@link SudokuModel}:
+ * inician juegos, escriben valores con tiempos de reflexión log-normales, piden ayudas
+ * y validan. Informa periódicamente el rendimiento, los percentiles de latencia por
+ * operación, las pausas de GC y el crecimiento del heap tras cada recolección.
+ *
+ * <p>Uso (no necesita JavaFX):</p>
+ * <pre>
+ * java -cp target/classes com.example.demo20.sim.LoadSimulation --players 5000 --duration 2h --think 800 --report 30s
+ * </pre>
+ *
+ * <p>En JDK 21 o superior cada jugador corre en un hilo virtual; en versiones anteriores
+ * se usan hilos de plataforma.</p>
+ */
+public final class LoadSimulation {
+
+    /**
+     * Operaciones medidas.
+     */
+    enum Operation {
+        NEW_GAME, SET_VALUE, HINT, VALIDATE
+    }
+
+    private static final double HINT_PROBABILITY = 0.02;
+    private static final double VALIDATE_PROBABILITY = 0.05;
+    private static final double WRONG_VALUE_PROBABILITY = 0.1;
+    private static final double THINK_SIGMA = 0.6;
+
+    private final int players;
+    private final Duration duration;
+    private final long thinkMedianMillis;
+    private final Duration reportInterval;
+    private final Map<Operation, LongHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> counts = new EnumMap<>(Operation.class);
+    private final LongAdder completedGames = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder livePlayers = new LongAdder();
+    private final AtomicBoolean firstFailureReported = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    LoadSimulation(int players, Duration duration, long thinkMedianMillis, Duration reportInterval) {
+        this.players = players;
+        this.duration = duration;
+        this.thinkMedianMillis = thinkMedianMillis;
+        this.reportInterval = reportInterval;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LongHistogram());
+            counts.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int players = 1000;
+        Duration duration = Duration.ofMinutes(5);
+        long think = 800;
+        Duration report = Duration.ofSeconds(10);
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--players":
+                    players = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--duration":
+                    duration = Durations.parse(args[i + 1]);
+                    break;
+                case "--think":
+                    think = Long.parseLong(args[i + 1]);
+                    break;
+                case "--report":
+                    report = Durations.parse(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        new LoadSimulation(players, duration, think, report).run();
+    }
+
+    void run() throws InterruptedException {
+        PrintStream out = System.out;
+        out.printf("Simulando %d jugadores durante %s (reflexión mediana %d ms, hilos %s)%n",
+                players, duration, thinkMedianMillis, isVirtualThreadsAvailable() ? "virtuales" : "de plataforma");
+
+        ExecutorService executor = newPlayerExecutor();
+        for (int i = 0; i < players; i++) {
+            executor.execute(this::simulatePlayer);
+        }
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Snapshot previous = new Snapshot();
+        while (System.nanoTime() < end) {
+            long wait = Math.min(reportInterval.toMillis(), TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()));
+            Thread.sleep(Math.max(1, wait));
+            Snapshot current = new Snapshot();
+            out.println(formatInterval(previous, current, start));
+            previous = current;
+        }
+
+        long livePlayersAtEnd = livePlayers.sum();
+        running = false;
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        out.println(formatSummary(System.nanoTime() - start, livePlayersAtEnd));
+    }
+
+    /**
+     * Ciclo de vida de un jugador simulado. Si una operación lanza una excepción, el fallo se
+     * cuenta y el jugador vuelve a empezar con un modelo nuevo; solo la primera excepción de la
+     * simulación se informa con su traza completa.
+     */
+    private void simulatePlayer() {
+        livePlayers.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        try {
+            while (running) {
+                SudokuModel model = new SudokuModel();
+                model.setVerbose(false);
+                try {
+                    playGames(model, random);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    if (firstFailureReported.compareAndSet(false, true)) {
+                        System.err.println("Fallo de un jugador simulado, se reinicia con un modelo nuevo: " + e);
+                        e.printStackTrace();
+                    }
+                    // Un fallo que se repite en cada intento no debe convertirse en un bucle sin pausa
+                    think(random);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            livePlayers.decrement();
+        }
+    }
+
+    /**
+     * Juega partidas con el mismo modelo hasta que termina la simulación.
+     */
+    private void playGames(SudokuModel model, ThreadLocalRandom random) throws InterruptedException {
+        while (running) {
+            timed(Operation.NEW_GAME, model::startNewGame);
+
+            while (running && !model.isGameCompleted()) {
+                think(random);
+
+                if (random.nextDouble() < HINT_PROBABILITY && model.getHintsRemaining() > 0) {
+                    int[] hint = timedHint(model);
+                    if (hint != null) {
+                        timed(Operation.SET_VALUE, () -> model.setValue(hint[0], hint[1], hint[2]));
+                    }
+                    continue;
+                }
+
+                if (random.nextDouble() < VALIDATE_PROBABILITY) {
+                    timed(Operation.VALIDATE, model::validateAndMarkErrors);
+                    continue;
+                }
+
+                if (!typeValue(model, random)) {
+                    // Tablero atascado: el jugador borra lo escrito o abandona
+                    if (random.nextBoolean()) {
+                        model.clearUserEntries();
+                    } else {
+                        break;
+                    }
+                }
+            }
+
+            if (model.isGameCompleted()) {
+                completedGames.increment();
+            }
+        }
+    }
+
+    /**
+     * Escribe un valor en una celda vacía: normalmente uno que no entra en conflicto,
+     * a veces uno equivocado, y corrige celdas con error cuando las ve.
+     *
+     * @return {@code false} si no queda ningún movimiento posible
+     */
+    private boolean typeValue(SudokuModel model, ThreadLocalRandom random) {
+        int start = random.nextInt(36);
+        for (int k = 0; k < 36; k++) {
+            int index = (start + k) % 36;
+            int row = index / 6;
+            int col = index % 6;
+            if (model.isInitialCell(row, col)) {
+                continue;
+            }
+
+            if (model.hasError(row, col)) {
+                timed(Operation.SET_VALUE, () -> model.setValue(row, col, 0));
+                return true;
+            }
+            if (model.getValue(row, col) != 0) {
+                continue;
+            }
+
+            int value = random.nextDouble() < WRONG_VALUE_PROBABILITY ? 1 + random.nextInt(6) : validValue(model, row, col, random);
+            if (value != 0) {
+                timed(Operation.SET_VALUE, () -> model.setValue(row, col, value));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int validValue(SudokuModel model, int row, int col, ThreadLocalRandom random) {
+        int offset = random.nextInt(6);
+        for (int k = 0; k < 6; k++) {
+            int value = 1 + (offset + k) % 6;
+            if (model.isValidPlacement(row, col, value)) {
+                return value;
+            }
+        }
+        return 0;
+    }
+
+    private void think(ThreadLocalRandom random) throws InterruptedException {
+        if (thinkMedianMillis <= 0) {
+            return;
+        }
+        double millis = thinkMedianMillis * Math.exp(THINK_SIGMA * random.nextGaussian());
+        Thread.sleep((long) millis);
+    }
+
+    private void timed(Operation operation, Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        latencies.get(operation).record(System.nanoTime() - start);
+        counts.get(operation).increment();
+    }
+
+    private int[] timedHint(SudokuModel model) {
+        long start = System.nanoTime();
+        int[] hint = model.getHint();
+        latencies.get(Operation.HINT).record(System.nanoTime() - start);
+        counts.get(Operation.HINT).increment();
+        return hint;
+    }
+
+    private String formatInterval(Snapshot previous, Snapshot current, long start) {
+        double seconds = (current.nanoTime - previous.nanoTime) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("[%6.0fs]", (current.nanoTime - start) / 1e9));
+        for (Operation operation : Operation.values()) {
+            long ops = current.counts.get(operation) - previous.counts.get(operation);
+            sb.append(String.format(" %s=%.0f/s", operation, ops / seconds));
+        }
+        sb.append(String.format(" | jugadores %d/%d, fallos %d", current.livePlayers, players, current.failures));
+        sb.append(String.format(" | GC %d (%d ms) | heap %.1f MB, tras GC %.1f MB | hilos %d",
+                current.gcCount - previous.gcCount, current.gcMillis - previous.gcMillis,
+                current.heapUsed / 1048576.0, current.heapAfterGc / 1048576.0, current.threads));
+        return sb.toString();
+    }
+
+    private String formatSummary(long elapsedNanos, long livePlayersAtEnd) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder sb = new StringBuilder(String.format(
+                "%nResumen tras %.0f s: %d juegos completados, %d fallos, %d de %d jugadores activos al final%n",
+                seconds, completedGames.sum(), failures.sum(), livePlayersAtEnd, players));
+        for (Operation operation : Operation.values()) {
+            LongHistogram histogram = latencies.get(operation);
+            sb.append(String.format("  %-9s %10d ops %9.0f/s  p50 %8.1f µs  p99 %8.1f µs  p99.9 %8.1f µs%n",
+                    operation, histogram.count(), histogram.count() / seconds,
+                    histogram.percentile(50) / 1e3, histogram.percentile(99) / 1e3, histogram.percentile(99.9) / 1e3));
+        }
+        Snapshot last = new Snapshot();
+        sb.append(String.format("  GC total %d (%d ms), heap tras GC %.1f MB",
+                last.gcCount, last.gcMillis, last.heapAfterGc / 1048576.0));
+        return sb.toString();
+    }
+
+    /**
+     * Contadores y estado de la JVM en un instante.
+     */
+    private final class Snapshot {
+        final long nanoTime = System.nanoTime();
+        final Map<Operation, Long> counts = new EnumMap<>(Operation.class);
+        long gcCount;
+        long gcMillis;
+        final long heapUsed;
+        long heapAfterGc;
+        final int threads = Thread.activeCount();
+        final long livePlayers = LoadSimulation.this.livePlayers.sum();
+        final long failures = LoadSimulation.this.failures.sum();
+
+        Snapshot() {
+            for (Operation operation : Operation.values()) {
+                counts.put(operation, LoadSimulation.this.counts.get(operation).sum());
+            }
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, bean.getCollectionCount());
+                gcMillis += Math.max(0, bean.getCollectionTime());
+            }
+            heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+            // La ocupación tras la última recolección es la que delata fugas de memoria
+            List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+            for (MemoryPoolMXBean pool : pools) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (pool.getType() == MemoryType.HEAP && usage != null) {
+                    heapAfterGc += usage.getUsed();
+                }
+            }
+        }
+    }
+
+    private static boolean isVirtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newPlayerExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(null, runnable, "player", 256 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.demo20.sim;
+
+import com.example.demo20.model.SearchBudget;
+import com.example.demo20.model.SearchResult;
+import com.example.demo20.model.SudokuModel;
+import com.example.demo20.model.Variant;
+
+import java.io.PrintStream;
+import java.time.Duration;
+
+/**
+ * Mide el costo de las reglas de cada variante: la comprobación de una jugada
+ * ({@link SudokuModel#isValidPlacement(int, int, int)}) y la generación de un juego con
+ * solución única. Sirve para comprobar que agregar unidades no encarece la comprobación
+ * más allá de los vecinos extra que introduce. La fila «Fija (3x2)» repite la comprobación
+ * anterior a las variantes (fila, columna y bloque 3x2 recorridos a mano) sobre el mismo tablero
+ * clásico, como referencia para comparar.
+ *
+ * <p>Uso (no necesita JavaFX):</p>
+ * <pre>
+ * java -cp target/classes com.example.demo20.sim.VariantBenchmark --rounds 5 --games 500
+ * </pre>
+ */
+public final class VariantBenchmark {
+
+    /** Rompecabezas de ejemplo: seis regiones contiguas de seis celdas, con solución. */
+    private static final int[] JIGSAW_REGIONS = {
+            2, 2, 2, 0, 0, 0,
+            2, 2, 0, 0, 0, 4,
+            2, 1, 5, 5, 5, 4,
+            1, 1, 5, 5, 5, 4,
+            1, 1, 1, 4, 4, 4,
+            3, 3, 3, 3, 3, 3
+    };
+
+    private static final int BLOCK_HEIGHT = 2;
+    private static final int BLOCK_WIDTH = 3;
+
+    private static final int CHECKS_PER_ROUND = 10_000_000;
+
+    /** Evita que el compilador JIT descarte las comprobaciones medidas. */
+    static volatile long sink;
+
+    private VariantBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rounds = 5;
+        int games = 500;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--rounds":
+                    rounds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        Variant[] variants = {
+                Variant.classic(),
+                Variant.diagonal(),
+                Variant.jigsaw("Rompecabezas", JIGSAW_REGIONS)
+        };
+
+        PrintStream out = System.out;
+        out.printf("%-14s %8s %8s %14s %16s %8s%n",
+                "Variante", "Unidades", "Vecinos", "Jugada (ns)", "Juego nuevo (us)", "Únicos");
+        measureBaseline(out, rounds);
+        for (Variant variant : variants) {
+            measure(out, variant, rounds, games);
+        }
+    }
+
+    private static void measure(PrintStream out, Variant variant, int rounds, int games) {
+        SudokuModel model = newGame(variant);
+
+        // Comprobación de jugadas: el mejor de varios recorridos, para descontar el calentamiento
+        double bestCheck = Double.MAX_VALUE;
+        long accepted = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            int cell = 0;
+            int number = 1;
+            for (int i = 0; i < CHECKS_PER_ROUND; i++) {
+                if (model.isValidPlacement(cell / 6, cell % 6, number)) {
+                    accepted++;
+                }
+                if (++number > 6) {
+                    number = 1;
+                    cell = cell == 35 ? 0 : cell + 1;
+                }
+            }
+            bestCheck = Math.min(bestCheck, (double) (System.nanoTime() - start) / CHECKS_PER_ROUND);
+        }
+        sink += accepted;
+
+        int unique = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            if (model.startNewGame(SearchBudget.of(Long.MAX_VALUE, Duration.ofSeconds(1), null)) == SearchResult.UNIQUE) {
+                unique++;
+            }
+        }
+        double gameMicros = (System.nanoTime() - start) / 1e3 / games;
+
+        int peers = 0;
+        for (int cell = 0; cell < 36; cell++) {
+            peers += variant.getPeerCount(cell / 6, cell % 6);
+        }
+        out.printf("%-14s %8d %8.1f %14.2f %16.1f %7d%%%n",
+                variant.getName(), variant.getUnitCount(), peers / 36.0, bestCheck, gameMicros,
+                unique * 100 / Math.max(1, games));
+    }
+
+    /**
+     * Mide la comprobación fija anterior a las variantes sobre un tablero clásico, con el mismo
+     * recorrido de celdas y números que {@link #measure}. No genera juegos.
+     */
+    private static void measureBaseline(PrintStream out, int rounds) {
+        Variant classic = Variant.classic();
+        SudokuModel model = newGame(classic);
+        int[][] board = new int[6][6];
+        for (int cell = 0; cell < 36; cell++) {
+            board[cell / 6][cell % 6] = model.getValue(cell / 6, cell % 6);
+        }
+
+        double bestCheck = Double.MAX_VALUE;
+        long accepted = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            int cell = 0;
+            int number = 1;
+            for (int i = 0; i < CHECKS_PER_ROUND; i++) {
+                if (isValidPlacementFixed(board, cell / 6, cell % 6, number)) {
+                    accepted++;
+                }
+                if (++number > 6) {
+                    number = 1;
+                    cell = cell == 35 ? 0 : cell + 1;
+                }
+            }
+            bestCheck = Math.min(bestCheck, (double) (System.nanoTime() - start) / CHECKS_PER_ROUND);
+        }
+        sink += accepted;
+
+        out.printf("%-14s %8d %8.1f %14.2f %16s %8s%n", "Fija (3x2)", classic.getUnitCount(),
+                classic.getPeerCount(0, 0) * 1.0, bestCheck, "-", "-");
+    }
+
+    /**
+     * Copia de {@code SudokuModel.isValidPlacement} antes de introducir {@link Variant}: fila,
+     * columna y bloque de 3x2 recorridos sin tablas de vecinos.
+     */
+    private static boolean isValidPlacementFixed(int[][] grid, int row, int col, int number) {
+        if (number < 1 || number > 6) {
+            return false;
+        }
+
+        int originalValue = grid[row][col];
+        grid[row][col] = 0;
+
+        // Verificar fila
+        for (int c = 0; c < 6; c++) {
+            if (grid[row][c] == number) {
+                grid[row][col] = originalValue;
+                return false;
+            }
+        }
+
+        // Verificar columna
+        for (int r = 0; r < 6; r++) {
+            if (grid[r][col] == number) {
+                grid[row][col] = originalValue;
+                return false;
+            }
+        }
+
+        // Verificar bloque 3x2
+        int blockStartRow = (row / BLOCK_HEIGHT) * BLOCK_HEIGHT;
+        int blockStartCol = (col / BLOCK_WIDTH) * BLOCK_WIDTH;
+
+        for (int r = blockStartRow; r < blockStartRow + BLOCK_HEIGHT; r++) {
+            for (int c = blockStartCol; c < blockStartCol + BLOCK_WIDTH; c++) {
+                if (grid[r][c] == number) {
+                    grid[row][col] = originalValue;
+                    return false;
+                }
+            }
+        }
+
+        grid[row][col] = originalValue;
+        return true;
+    }
+
+    private static SudokuModel newGame(Variant variant) {
+        SudokuModel model = new SudokuModel(variant);
+        model.setVerbose(false);
+        model.startNewGame(SearchBudget.of(Long.MAX_VALUE, Duration.ofSeconds(10), null));
+        return model;
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.demo20.stats;
+
+import com.example.demo20.model.Difficulty;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estadísticas acumuladas de partidas completadas y tabla de mejores tiempos por dificultad.
+ *
+ * <p>{@link #record(Difficulty, long, int)} no bloquea: actualiza histogramas basados en
+ * {@code LongAdder} y encola la partida para la tabla de puntuaciones. Un hilo propio
+ * consume la cola, mantiene las tablas y guarda periódicamente un archivo binario compacto.</p>
+ */
+public final class GameStatistics implements AutoCloseable {
+
+    private static final int MAGIC = 0x53444B53; // "SDKS"
+    private static final int VERSION = 2;
+    /** Versión sin la suma de los histogramas: se estima con el límite inferior de cada cubeta. */
+    private static final int VERSION_WITHOUT_SUMS = 1;
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final long DRAIN_PERIOD_MILLIS = 500;
+    private static final long PERSIST_PERIOD_MILLIS = 30_000;
+
+    private final Path file;
+    private final Map<Difficulty, LongHistogram> times = new EnumMap<>(Difficulty.class);
+    private final Map<Difficulty, LongHistogram> hints = new EnumMap<>(Difficulty.class);
+    private final Map<Difficulty, Leaderboard> leaderboards = new EnumMap<>(Difficulty.class);
+    private final Queue<CompletedGame> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService worker;
+    private volatile boolean dirty;
+
+    /**
+     * Partida pendiente de incorporar a la tabla de puntuaciones.
+     */
+    private static final class CompletedGame {
+        final Difficulty difficulty;
+        final long elapsedMillis;
+        final int hintsUsed;
+        final long finishedAt;
+
+        CompletedGame(Difficulty difficulty, long elapsedMillis, int hintsUsed, long finishedAt) {
+            this.difficulty = difficulty;
+            this.elapsedMillis = elapsedMillis;
+            this.hintsUsed = hintsUsed;
+            this.finishedAt = finishedAt;
+        }
+    }
+
+    private GameStatistics(Path file) {
+        this.file = file;
+        for (Difficulty difficulty : Difficulty.values()) {
+            times.put(difficulty, new LongHistogram());
+            hints.put(difficulty, new LongHistogram());
+            leaderboards.put(difficulty, new Leaderboard(LEADERBOARD_SIZE));
+        }
+
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Abre las estadísticas guardadas en el archivo (si existe) e inicia el hilo de persistencia.
+     *
+     * @param file archivo de estadísticas
+     * @return estadísticas listas para registrar partidas
+     */
+    public static GameStatistics open(Path file) {
+        GameStatistics statistics = new GameStatistics(file);
+        if (Files.exists(file)) {
+            try {
+                statistics.load();
+            } catch (IOException e) {
+                System.err.println("No se pudieron leer las estadísticas, se empieza de cero: " + e.getMessage());
+            }
+        }
+        statistics.worker.scheduleWithFixedDelay(statistics::drain,
+                DRAIN_PERIOD_MILLIS, DRAIN_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        // Se vacía la cola antes de guardar para que el archivo incluya las partidas ya registradas
+        statistics.worker.scheduleWithFixedDelay(statistics::drainAndPersist,
+                PERSIST_PERIOD_MILLIS, PERSIST_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        return statistics;
+    }
+
+    /**
+     * Registra una partida completada. Se puede llamar desde cualquier hilo sin bloquear.
+     */
+    public void record(Difficulty difficulty, long elapsedMillis, int hintsUsed) {
+        times.get(difficulty).record(elapsedMillis);
+        hints.get(difficulty).record(hintsUsed);
+        pending.offer(new CompletedGame(difficulty, elapsedMillis, hintsUsed, System.currentTimeMillis()));
+        dirty = true;
+    }
+
+    public LongHistogram getTimeHistogram(Difficulty difficulty) {
+        return times.get(difficulty);
+    }
+
+    public LongHistogram getHintsHistogram(Difficulty difficulty) {
+        return hints.get(difficulty);
+    }
+
+    /**
+     * @return mejores partidas de la dificultad, según el último estado publicado por el hilo de estadísticas
+     */
+    public List<Leaderboard.Entry> getLeaderboard(Difficulty difficulty) {
+        return leaderboards.get(difficulty).getEntries();
+    }
+
+    /**
+     * Incorpora las partidas pendientes y guarda el archivo de inmediato.
+     */
+    public void flush() {
+        try {
+            worker.submit(this::drainAndPersist).get();
+        } catch (Exception e) {
+            System.err.println("Error al guardar las estadísticas: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        worker.shutdown();
+    }
+
+    private void drain() {
+        boolean changed = false;
+        CompletedGame game;
+        while ((game = pending.poll()) != null) {
+            changed |= leaderboards.get(game.difficulty).offer(game.elapsedMillis, game.hintsUsed, game.finishedAt);
+        }
+        if (changed) {
+            for (Leaderboard leaderboard : leaderboards.values()) {
+                leaderboard.publish();
+            }
+            // Un guardado entre record() y este drain() pudo limpiar la marca sin incluir estas partidas
+            dirty = true;
+        }
+    }
+
+    private void drainAndPersist() {
+        drain();
+        persistIfDirty();
+    }
+
+    private void persistIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            save();
+        } catch (IOException e) {
+            dirty = true;
+            System.err.println("No se pudieron guardar las estadísticas: " + e.getMessage());
+        }
+    }
+
+    private void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(Difficulty.values().length);
+            for (Difficulty difficulty : Difficulty.values()) {
+                writeHistogram(out, times.get(difficulty));
+                writeHistogram(out, hints.get(difficulty));
+
+                List<Leaderboard.Entry> entries = leaderboards.get(difficulty).getEntries();
+                out.writeByte(entries.size());
+                for (Leaderboard.Entry entry : entries) {
+                    out.writeLong(entry.getElapsedMillis());
+                    out.writeByte(entry.getHintsUsed());
+                    out.writeLong(entry.getFinishedAt());
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int magic = in.readInt();
+            int version = in.readInt();
+            if (magic != MAGIC || (version != VERSION && version != VERSION_WITHOUT_SUMS)) {
+                throw new IOException("formato desconocido");
+            }
+            boolean withSums = version == VERSION;
+            int levels = in.readUnsignedByte();
+            for (int level = 0; level < levels && level < Difficulty.values().length; level++) {
+                Difficulty difficulty = Difficulty.values()[level];
+                readHistogram(in, times.get(difficulty), withSums);
+                readHistogram(in, hints.get(difficulty), withSums);
+
+                Leaderboard leaderboard = leaderboards.get(difficulty);
+                int entries = in.readUnsignedByte();
+                for (int i = 0; i < entries; i++) {
+                    leaderboard.offer(in.readLong(), in.readUnsignedByte(), in.readLong());
+                }
+                leaderboard.publish();
+            }
+        }
+    }
+
+    /**
+     * Escribe la suma exacta de los valores y solo las cubetas no vacías como pares (índice, cantidad).
+     */
+    private static void writeHistogram(DataOutputStream out, LongHistogram histogram) throws IOException {
+        out.writeLong(histogram.sum());
+        int used = 0;
+        for (int i = 0; i < LongHistogram.BUCKET_COUNT; i++) {
+            if (histogram.bucketCount(i) != 0) {
+                used++;
+            }
+        }
+        out.writeShort(used);
+        for (int i = 0; i < LongHistogram.BUCKET_COUNT && used > 0; i++) {
+            long count = histogram.bucketCount(i);
+            if (count != 0) {
+                out.writeShort(i);
+                out.writeLong(count);
+                used--;
+            }
+        }
+    }
+
+    private static void readHistogram(DataInputStream in, LongHistogram histogram, boolean withSum)
+            throws IOException {
+        if (withSum) {
+            histogram.addToSum(in.readLong());
+        }
+        int used = in.readUnsignedShort();
+        for (int i = 0; i < used; i++) {
+            int index = in.readUnsignedShort();
+            long count = in.readLong();
+            if (index >= LongHistogram.BUCKET_COUNT) {
+                throw new IOException("cubeta fuera de rango: " + index);
+            }
+            histogram.addToBucket(index, count);
+            if (!withSum) {
+                histogram.addToSum(LongHistogram.bucketLowerBound(index) * count);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo20.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tabla de mejores partidas de tamaño acotado: menor tiempo primero y, a igual tiempo,
+ * menos ayudas. Solo la modifica el hilo de estadísticas; los lectores obtienen una
+ * copia inmutable publicada de forma volátil.
+ */
+public final class Leaderboard {
+
+    private final int capacity;
+    private final long[] elapsedMillis;
+    private final int[] hintsUsed;
+    private final long[] finishedAt;
+    private int size;
+    private volatile List<Entry> snapshot = Collections.emptyList();
+
+    /**
+     * Entrada inmutable de la tabla.
+     */
+    public static final class Entry {
+        private final long elapsedMillis;
+        private final int hintsUsed;
+        private final long finishedAt;
+
+        Entry(long elapsedMillis, int hintsUsed, long finishedAt) {
+            this.elapsedMillis = elapsedMillis;
+            this.hintsUsed = hintsUsed;
+            this.finishedAt = finishedAt;
+        }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public int getHintsUsed() { return hintsUsed; }
+        public long getFinishedAt() { return finishedAt; }
+
+        @Override
+        public String toString() {
+            return String.format("Entry{time=%dms, hints=%d, at=%d}", elapsedMillis, hintsUsed, finishedAt);
+        }
+    }
+
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+        this.elapsedMillis = new long[capacity];
+        this.hintsUsed = new int[capacity];
+        this.finishedAt = new long[capacity];
+    }
+
+    /**
+     * Inserta una partida si entra en la tabla.
+     *
+     * @return {@code true} si la tabla cambió
+     */
+    boolean offer(long elapsed, int hints, long at) {
+        int pos = size;
+        while (pos > 0 && isBetter(elapsed, hints, elapsedMillis[pos - 1], hintsUsed[pos - 1])) {
+            pos--;
+        }
+        if (pos >= capacity) {
+            return false;
+        }
+
+        int last = Math.min(size, capacity - 1);
+        for (int i = last; i > pos; i--) {
+            elapsedMillis[i] = elapsedMillis[i - 1];
+            hintsUsed[i] = hintsUsed[i - 1];
+            finishedAt[i] = finishedAt[i - 1];
+        }
+        elapsedMillis[pos] = elapsed;
+        hintsUsed[pos] = hints;
+        finishedAt[pos] = at;
+        size = Math.min(size + 1, capacity);
+        return true;
+    }
+
+    /**
+     * Publica el estado actual para los lectores.
+     */
+    void publish() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(elapsedMillis[i], hintsUsed[i], finishedAt[i]));
+        }
+        snapshot = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return snapshot;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private static boolean isBetter(long elapsed, int hints, long otherElapsed, int otherHints) {
+        return elapsed < otherElapsed || (elapsed == otherElapsed && hints < otherHints);
+    }
+}
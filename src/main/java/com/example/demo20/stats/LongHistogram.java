@@ -0,0 +1,116 @@
+package com.example.demo20.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma concurrente de valores no negativos con cubetas log-lineales:
+ * 16 subcubetas por potencia de dos, lo que da un error relativo máximo del 6,25 %.
+ * Registrar un valor es un incremento de {@link LongAdder}, sin bloqueos;
+ * las consultas de percentil recorren un número fijo de cubetas sin importar
+ * cuántos valores se hayan registrado.
+ */
+public final class LongHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+
+    /** Número de cubetas: valores 0..15 directos y 16 subcubetas por cada exponente 4..40. */
+    public static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    public LongHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        buckets[bucketIndex(clamped)].increment();
+        count.increment();
+        sum.add(clamped);
+    }
+
+    /**
+     * Suma un número de observaciones a una cubeta (usado al cargar desde disco). La suma de los
+     * valores no cambia: se restaura aparte con {@link #addToSum(long)}.
+     */
+    void addToBucket(int index, long observations) {
+        buckets[index].add(observations);
+        count.add(observations);
+    }
+
+    /**
+     * Suma a la suma de los valores registrados (usado al cargar desde disco).
+     */
+    void addToSum(long value) {
+        sum.add(value);
+    }
+
+    long bucketCount(int index) {
+        return buckets[index].sum();
+    }
+
+    /**
+     * @return suma exacta de los valores registrados
+     */
+    long sum() {
+        return sum.sum();
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Devuelve el valor aproximado en el percentil indicado.
+     *
+     * @param percentile percentil entre 0 y 100
+     * @return límite inferior de la cubeta que contiene el percentil, o 0 si no hay datos
+     */
+    public long percentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100.0, percentile) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i].sum();
+            if (seen >= target) {
+                return bucketLowerBound(i);
+            }
+        }
+        return bucketLowerBound(BUCKET_COUNT - 1);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+        if (exponent == MAX_EXPONENT && value >= (1L << (MAX_EXPONENT + 1))) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -1,8 +1,13 @@
 module demo20 {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.management;
+    requires jdk.management;
+    requires static jdk.incubator.vector;
+    requires jdk.jfr;
 
     exports com.example.demo20;
+    exports com.example.demo20.jfr to jdk.jfr;
 
     opens com.example.demo20 to javafx.fxml;
     opens com.example.demo20.controller to javafx.fxml;
@@ -0,0 +1,100 @@
+package com.example.demo20.export;
+
+import com.example.demo20.model.Difficulty;
+import com.example.demo20.model.Variant;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exportaciones completas con varios hilos por etapa, búferes mínimos y un disco lento, para que
+ * todas las etapas lleguen a esperar a la vez.
+ */
+class PuzzleExportTest {
+
+    private static final int COUNT = 400;
+    private static final int BUFFER = 4;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @Test
+    void twoThreadsWriteEveryBoard() throws Exception {
+        assertExports(2);
+    }
+
+    @Test
+    void fourThreadsWriteEveryBoard() throws Exception {
+        assertExports(4);
+    }
+
+    /** Con 100 nodos la verificación rechaza cerca de un tercio de los tableros; cada uno se reemplaza. */
+    @Test
+    void rejectedBoardsAreReplaced() throws Exception {
+        PuzzleExport export = newExport(2);
+        export.setMaxVerifyNodes(100);
+        assertExports(export, 2);
+    }
+
+    private static void assertExports(int threads) throws Exception {
+        assertExports(newExport(threads), threads);
+    }
+
+    private static PuzzleExport newExport(int threads) {
+        return new PuzzleExport(Variant.classic(), COUNT, ExportFormat.TEXT, threads, BUFFER, 2, Duration.ofMillis(100));
+    }
+
+    private static void assertExports(PuzzleExport export, int threads) throws Exception {
+        SlowOutputStream out = new SlowOutputStream();
+        ExecutorService generators = Executors.newFixedThreadPool(threads);
+        ExecutorService stages = Executors.newFixedThreadPool(PuzzleExport.stageThreads(threads));
+        long written;
+        try {
+            written = assertTimeoutPreemptively(TIMEOUT, () -> export.run(generators, stages, out),
+                    "la exportación no terminó: etapas bloqueadas");
+        } finally {
+            generators.shutdownNow();
+            stages.shutdownNow();
+        }
+
+        assertEquals(COUNT, written);
+        String[] lines = out.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(COUNT, lines.length);
+        Set<Difficulty> difficulties = EnumSet.noneOf(Difficulty.class);
+        for (String line : lines) {
+            String[] fields = line.split(" ");
+            assertSolves(fields[0], fields[1]);
+            difficulties.add(Difficulty.valueOf(fields[2]));
+        }
+        assertTrue(difficulties.size() > 1, "todos los tableros con la misma dificultad: " + difficulties);
+    }
+
+    private static void assertSolves(String clues, String solution) {
+        byte[] board = new byte[36];
+        for (int cell = 0; cell < 36; cell++) {
+            char clue = clues.charAt(cell);
+            assertTrue(clue == '.' || clue == solution.charAt(cell), "la solución no respeta las pistas: " + clues);
+            board[cell] = (byte) (solution.charAt(cell) - '0');
+        }
+        // Filas, columnas y bloques de 3x2
+        assertTrue(Variant.classic().isSolved(board, 0), "solución inválida: " + solution);
+    }
+
+    /** Tarda un poco en cada escritura, para que los búferes entre etapas se llenen. */
+    private static final class SlowOutputStream extends ByteArrayOutputStream {
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            LockSupport.parkNanos(200_000);
+            super.write(b, off, len);
+        }
+    }
+}
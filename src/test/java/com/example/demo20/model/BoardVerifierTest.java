@@ -0,0 +1,167 @@
+package com.example.demo20.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pruebas de la verificación masiva: la implementación SIMD y la escalar deben dar la misma
+ * validez tablero por tablero, también en el resto de un lote que no llena un vector.
+ *
+ * <p>La comparación con {@link VectorBoardVerifier} necesita {@code --add-modules
+ * jdk.incubator.vector}, que la configuración de Surefire agrega; sin el módulo se omite.</p>
+ */
+class BoardVerifierTest {
+
+    /** Un número primo: nunca es múltiplo de la cantidad de carriles. */
+    private static final int BOARDS = 101;
+    private static final int OFFSET = 7;
+
+    private static final int[][] SOLUTION = {
+            {1, 2, 3, 4, 5, 6},
+            {4, 5, 6, 1, 2, 3},
+            {2, 3, 1, 5, 6, 4},
+            {5, 6, 4, 2, 3, 1},
+            {3, 1, 2, 6, 4, 5},
+            {6, 4, 5, 3, 1, 2}
+    };
+
+    /**
+     * Tipos de tablero del lote, cada uno con su validez esperada.
+     */
+    private enum Kind {
+        VALID(true),
+        ROW_VIOLATION(false),
+        COLUMN_VIOLATION(false),
+        BLOCK_VIOLATION(false),
+        OUT_OF_RANGE(false);
+
+        final boolean valid;
+
+        Kind(boolean valid) {
+            this.valid = valid;
+        }
+    }
+
+    private final boolean[] expected = new boolean[BOARDS];
+    private final byte[] boards = buildBatch(new Random(42), expected);
+
+    @Test
+    void scalarPathMatchesExpectedValidity() {
+        for (int b = 0; b < BOARDS; b++) {
+            assertEquals(expected[b], BoardVerifier.isValid(boards, OFFSET + b * BoardVerifier.BOARD_BYTES),
+                    "tablero " + b);
+        }
+    }
+
+    @Test
+    void vectorPathMatchesScalarPath() {
+        assumeTrue(BoardVerifier.isVectorized(), "Sin el módulo jdk.incubator.vector");
+
+        boolean[] results = new boolean[BOARDS];
+        int valid = VectorBoardVerifier.verify(boards, OFFSET, BOARDS, results);
+        assertArrayEquals(expected, results);
+        assertEquals(countValid(), valid);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(boards.length);
+        buffer.put(boards).position(OFFSET);
+        boolean[] bufferResults = new boolean[BOARDS];
+        assertEquals(countValid(), VectorBoardVerifier.verify(buffer, OFFSET, BOARDS, bufferResults));
+        assertArrayEquals(expected, bufferResults);
+    }
+
+    @Test
+    void everyBatchSizeAgrees() {
+        // Desde lotes que no llenan un vector hasta varios vectores más un resto
+        for (int count = 0; count <= BOARDS; count++) {
+            boolean[] results = new boolean[count];
+            int valid = BoardVerifier.verify(boards, OFFSET, count, results);
+            int expectedValid = 0;
+            for (int b = 0; b < count; b++) {
+                assertEquals(expected[b], results[b], "tablero " + b + " de un lote de " + count);
+                if (expected[b]) {
+                    expectedValid++;
+                }
+            }
+            assertEquals(expectedValid, valid, "lote de " + count);
+        }
+    }
+
+    private int countValid() {
+        int valid = 0;
+        for (boolean b : expected) {
+            if (b) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Arma un lote que recorre los tipos de tablero en orden, así que cada tipo aparece tanto en los
+     * bloques completos como en el resto. Cada tablero renombra los dígitos de {@link #SOLUTION}.
+     */
+    private static byte[] buildBatch(Random random, boolean[] expected) {
+        Kind[] kinds = Kind.values();
+        byte[] boards = new byte[OFFSET + BOARDS * BoardVerifier.BOARD_BYTES];
+        int[][] grid = new int[6][6];
+        for (int b = 0; b < BOARDS; b++) {
+            Kind kind = kinds[b % kinds.length];
+            relabel(random, grid);
+            switch (kind) {
+                case ROW_VIOLATION:
+                    // Intercambiar dos celdas de una columna: la columna sigue completa, dos filas no
+                    int first = random.nextInt(6);
+                    swap(grid, first, 0, (first + 1 + random.nextInt(5)) % 6, 0);
+                    break;
+                case COLUMN_VIOLATION:
+                    // Intercambiar dos celdas de una fila en bloques distintos: la fila sigue completa
+                    int row = random.nextInt(6);
+                    swap(grid, row, random.nextInt(3), row, 3 + random.nextInt(3));
+                    break;
+                case BLOCK_VIOLATION:
+                    // Cuadrado latino cíclico: filas y columnas completas, bloques repetidos
+                    for (int r = 0; r < 6; r++) {
+                        for (int c = 0; c < 6; c++) {
+                            grid[r][c] = (r + c) % 6 + 1;
+                        }
+                    }
+                    break;
+                case OUT_OF_RANGE:
+                    grid[random.nextInt(6)][random.nextInt(6)] = random.nextBoolean() ? 0 : 7;
+                    break;
+                default:
+                    break;
+            }
+            BoardVerifier.pack(grid, boards, OFFSET + b * BoardVerifier.BOARD_BYTES);
+            expected[b] = kind.valid;
+        }
+        return boards;
+    }
+
+    private static void relabel(Random random, int[][] grid) {
+        int[] digits = {1, 2, 3, 4, 5, 6};
+        for (int i = digits.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = digits[i];
+            digits[i] = digits[j];
+            digits[j] = tmp;
+        }
+        for (int r = 0; r < 6; r++) {
+            for (int c = 0; c < 6; c++) {
+                grid[r][c] = digits[SOLUTION[r][c] - 1];
+            }
+        }
+    }
+
+    private static void swap(int[][] grid, int r1, int c1, int r2, int c2) {
+        int tmp = grid[r1][c1];
+        grid[r1][c1] = grid[r2][c2];
+        grid[r2][c2] = tmp;
+    }
+}
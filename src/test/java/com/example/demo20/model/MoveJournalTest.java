@@ -0,0 +1,108 @@
+package com.example.demo20.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de ida y vuelta del diario de jugadas: lo que escribe un modelo se reproduce con las
+ * mismas reglas y el mismo estado, también después de pasar de un segmento mapeado al siguiente.
+ */
+class MoveJournalTest {
+
+    /** Seis regiones contiguas que no son los bloques 3x2. */
+    private static final int[] JIGSAW_REGIONS = {
+            2, 2, 2, 0, 0, 0,
+            2, 2, 0, 0, 0, 4,
+            2, 1, 5, 5, 5, 4,
+            1, 1, 5, 5, 5, 4,
+            1, 1, 1, 4, 4, 4,
+            3, 3, 3, 3, 3, 3
+    };
+
+    /** Jugadas suficientes para llenar el primer segmento y escribir en el segundo. */
+    private static final int MOVES = MoveJournal.SEGMENT_EVENTS + 1000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void jigsawGameReplaysAcrossSegments() throws IOException {
+        assertRoundTrip(Variant.jigsaw("Rompecabezas", JIGSAW_REGIONS));
+    }
+
+    @Test
+    void diagonalGameReplaysAcrossSegments() throws IOException {
+        assertRoundTrip(Variant.diagonal());
+    }
+
+    @Test
+    void classicGameReplaysAcrossSegments() throws IOException {
+        assertRoundTrip(Variant.classic());
+    }
+
+    @Test
+    void reopeningWithAnotherVariantIsRejected() throws IOException {
+        Path path = directory.resolve("moves.journal");
+        MoveJournal.open(path, Variant.diagonal()).close();
+
+        assertThrows(IOException.class, () -> MoveJournal.open(path));
+        try (MoveJournal journal = MoveJournal.open(path, Variant.diagonal())) {
+            assertSame(Variant.diagonal(), journal.getVariant());
+            assertThrows(IllegalArgumentException.class, () -> newModel(Variant.classic()).setJournal(journal));
+        }
+    }
+
+    private void assertRoundTrip(Variant variant) throws IOException {
+        Path path = directory.resolve("moves.journal");
+        SudokuModel model = newModel(variant);
+        long sessionId;
+        try (MoveJournal journal = MoveJournal.open(path, variant)) {
+            sessionId = journal.getSessionId();
+            model.setJournal(journal);
+            model.startNewGame();
+
+            Random random = new Random(42);
+            for (int move = 0; move < MOVES; move++) {
+                int row = random.nextInt(6);
+                int col = random.nextInt(6);
+                if (model.isInitialCell(row, col)) {
+                    model.validateAndMarkErrors();
+                } else {
+                    model.setValue(row, col, random.nextInt(7));
+                }
+            }
+            assertTrue(journal.size() > MoveJournal.SEGMENT_EVENTS, "El diario no pasó al segundo segmento");
+        }
+
+        MoveJournal.Reader reader = MoveJournal.openReader(path);
+        assertTrue(reader.getVariant().hasSameRules(variant));
+        assertEquals(MOVES + 1, reader.size());
+
+        SudokuModel replayed = reader.replay(sessionId, Long.MAX_VALUE);
+        assertNotNull(replayed);
+        assertTrue(replayed.getVariant().hasSameRules(variant));
+        for (int row = 0; row < 6; row++) {
+            for (int col = 0; col < 6; col++) {
+                assertEquals(model.getValue(row, col), replayed.getValue(row, col), "celda " + row + "," + col);
+                assertEquals(model.isInitialCell(row, col), replayed.isInitialCell(row, col));
+                assertEquals(model.hasError(row, col), replayed.hasError(row, col), "error en " + row + "," + col);
+            }
+        }
+    }
+
+    private static SudokuModel newModel(Variant variant) {
+        SudokuModel model = new SudokuModel(variant);
+        model.setVerbose(false);
+        return model;
+    }
+}
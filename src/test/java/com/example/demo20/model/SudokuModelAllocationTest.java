@@ -0,0 +1,145 @@
+package com.example.demo20.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de regresión de memoria: las operaciones frecuentes del motor no deben reservar
+ * memoria (o solo una cantidad acotada) una vez que el JIT compiló el código.
+ *
+ * <p>Se mide con {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} en el
+ * propio hilo de la prueba. Cada operación se repite en rondas hasta cumplir el límite o agotar
+ * {@link #MAX_WAIT}: las primeras rondas corren en el intérprete o esperan a que el JIT termine de
+ * compilar en segundo plano, lo que en máquinas de un solo núcleo puede tardar.</p>
+ */
+class SudokuModelAllocationTest {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(10);
+    private static final int CALLS = 20_000;
+    /** Solo el arreglo {fila, columna, número}: cabecera más tres enteros. */
+    private static final long HINT_BYTES = 32;
+    /** El instante de inicio y los búferes de la clasificación de dificultad. */
+    private static final long NEW_GAME_BYTES = 4096;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private SudokuModel model;
+    private int row;
+    private int col;
+
+    @BeforeAll
+    static void enableAllocationCounters() {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @BeforeEach
+    void startGame() {
+        model = new SudokuModel();
+        model.setVerbose(false);
+        model.startNewGame();
+        for (int cell = 0; cell < 36; cell++) {
+            if (!model.isInitialCell(cell / 6, cell % 6)) {
+                row = cell / 6;
+                col = cell % 6;
+                return;
+            }
+        }
+    }
+
+    @Test
+    void setValueDoesNotAllocate() {
+        int[] value = {0};
+        Runnable setValue = () -> {
+            value[0] = value[0] == 6 ? 0 : value[0] + 1;
+            model.setValue(row, col, value[0]);
+        };
+        assertAllocatesAtMost(0, steadyAllocation(CALLS, 0, setValue), "setValue");
+    }
+
+    @Test
+    void validationDoesNotAllocate() {
+        model.setValue(row, col, model.getValue(row, col) == 0 ? 1 : 0);
+        Runnable validate = model::validateAndMarkErrors;
+        assertAllocatesAtMost(0, steadyAllocation(CALLS, 0, validate), "validateAndMarkErrors");
+    }
+
+    @Test
+    void placementCheckDoesNotAllocate() {
+        int[] number = {0};
+        Runnable check = () -> {
+            number[0] = number[0] % 6 + 1;
+            model.isValidPlacement(row, col, number[0]);
+        };
+        assertAllocatesAtMost(0, steadyAllocation(CALLS, 0, check), "isValidPlacement");
+    }
+
+    @Test
+    void hintOnlyAllocatesItsResult() {
+        int[][] clues = new int[6][6];
+        int[][] solution = new int[6][6];
+        boolean[][] initial = new boolean[6][6];
+        for (int r = 0; r < 6; r++) {
+            for (int c = 0; c < 6; c++) {
+                initial[r][c] = model.isInitialCell(r, c);
+                clues[r][c] = model.getValue(r, c);
+            }
+        }
+        assertSame(SearchResult.UNIQUE, model.verifyPuzzle(clues, solution, SearchBudget.unlimited()));
+
+        // Cada juego admite tres ayudas: se restaura el juego fuera de la medición
+        long thread = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        long deadline = System.nanoTime() + MAX_WAIT.toNanos();
+        while (best > HINT_BYTES && System.nanoTime() < deadline) {
+            long total = 0;
+            for (int i = 0; i < CALLS; i++) {
+                if (model.getHintsRemaining() == 0) {
+                    model.restoreGame(solution, initial);
+                }
+                long before = THREADS.getThreadAllocatedBytes(thread);
+                int[] hint = model.getHint();
+                total += THREADS.getThreadAllocatedBytes(thread) - before;
+                assertNotNull(hint);
+            }
+            best = Math.min(best, total / CALLS);
+        }
+        assertAllocatesAtMost(HINT_BYTES, best, "getHint");
+    }
+
+    @Test
+    void newGameAllocationIsBounded() {
+        assertAllocatesAtMost(NEW_GAME_BYTES, steadyAllocation(200, NEW_GAME_BYTES, model::startNewGame), "startNewGame");
+    }
+
+    /**
+     * @return bytes reservados por llamada en la mejor ronda, midiendo hasta llegar a {@code limit}
+     *         o agotar {@link #MAX_WAIT}
+     */
+    private static long steadyAllocation(int calls, long limit, Runnable operation) {
+        long thread = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        long deadline = System.nanoTime() + MAX_WAIT.toNanos();
+        while (best > limit && System.nanoTime() < deadline) {
+            long before = THREADS.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < calls; i++) {
+                operation.run();
+            }
+            best = Math.min(best, (THREADS.getThreadAllocatedBytes(thread) - before) / calls);
+        }
+        return best;
+    }
+
+    private static void assertAllocatesAtMost(long bytes, long measured, String operation) {
+        assertTrue(measured <= bytes, operation + " reserva " + measured + " bytes por llamada (máximo " + bytes + ")");
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo20.net;
+
+import com.example.demo20.model.SearchBudget;
+import com.example.demo20.model.SearchResult;
+import com.example.demo20.model.SudokuModel;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carreras completas sobre la interfaz de bucle local: servidor y clientes reales en el mismo proceso.
+ */
+class RaceLoopbackTest {
+
+    private static final int PLAYERS = 100;
+    private static final long TIMEOUT_SECONDS = 20;
+
+    @Test
+    void playersReceivePuzzleProgressAndVerifiedResult() throws Exception {
+        SudokuModel model = newGame();
+        byte[] clues = new byte[RaceProtocol.CELLS];
+        int[][] solution = solve(model, clues);
+        int moves = 0;
+        for (byte clue : clues) {
+            moves += clue == 0 ? 1 : 0;
+        }
+
+        try (RaceServer server = RaceServer.start(loopback(), 2, model)) {
+            Player[] players = new Player[PLAYERS];
+            for (int i = 0; i < PLAYERS; i++) {
+                players[i] = new Player(server.getPort(), moves);
+            }
+            Set<Integer> ids = ConcurrentHashMap.newKeySet();
+            for (Player player : players) {
+                assertTrue(player.puzzle.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "tablero no recibido");
+                assertArrayEquals(clues, player.clues);
+                ids.add(player.client.getPlayerId());
+            }
+            assertEquals(PLAYERS, ids.size(), "identificadores de jugador repetidos");
+
+            // El primer jugador resuelve el tablero; todos ven cada jugada y el resultado
+            Player winner = players[0];
+            for (int cell = 0; cell < RaceProtocol.CELLS; cell++) {
+                if (clues[cell] == 0) {
+                    winner.client.sendMove(cell, solution[cell / 6][cell % 6]);
+                }
+            }
+            winner.client.sendComplete();
+
+            for (Player player : players) {
+                assertTrue(player.progress.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "faltan jugadas");
+                assertTrue(player.result.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "falta el resultado");
+                assertEquals(winner.client.getPlayerId(), player.resultPlayer);
+                assertTrue(player.resultValid);
+                player.client.close();
+            }
+        }
+    }
+
+    @Test
+    void burstOfMovesIsDeliveredWithoutOverflow() throws Exception {
+        SudokuModel model = newGame();
+        byte[] clues = new byte[RaceProtocol.CELLS];
+        solve(model, clues);
+        int empty = 0;
+        while (clues[empty] != 0) {
+            empty++;
+        }
+
+        // Más jugadas de las que caben en el búfer de salida inicial del cliente
+        int moves = 4000;
+        try (RaceServer server = RaceServer.start(loopback(), 1, model)) {
+            Player player = new Player(server.getPort(), moves);
+            assertTrue(player.puzzle.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "tablero no recibido");
+            for (int i = 0; i < moves; i++) {
+                player.client.sendMove(empty, 1 + i % 6);
+            }
+            assertTrue(player.progress.await(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                    "jugadas recibidas: " + (moves - player.progress.getCount()));
+            assertEquals(1 + (moves - 1) % 6, player.lastValue.get());
+            player.client.close();
+        }
+    }
+
+    @Test
+    void movesForAnEarlierRaceAreIgnored() throws Exception {
+        SudokuModel model = newGame();
+        byte[] clues = new byte[RaceProtocol.CELLS];
+        solve(model, clues);
+
+        // Cliente en crudo, para poder enviar una jugada con un identificador de carrera viejo
+        try (RaceServer server = RaceServer.start(loopback(), 1, model);
+             SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                     server.getPort()))) {
+            ByteBuffer first = readMessage(channel, RaceProtocol.PUZZLE_SIZE);
+            int firstRace = first.getInt(5);
+
+            model.startNewGame();
+            byte[] next = new byte[RaceProtocol.CELLS];
+            solve(model, next);
+            server.startRace(model);
+            ByteBuffer second = readMessage(channel, RaceProtocol.PUZZLE_SIZE);
+            int secondRace = second.getInt(5);
+            assertTrue(secondRace != firstRace);
+
+            int empty = 0;
+            while (next[empty] != 0) {
+                empty++;
+            }
+            ByteBuffer moves = ByteBuffer.allocate(2 * RaceProtocol.MOVE_SIZE);
+            RaceProtocol.putMove(moves, firstRace, empty, 2);
+            RaceProtocol.putMove(moves, secondRace, empty, 3);
+            moves.flip();
+            while (moves.hasRemaining()) {
+                channel.write(moves);
+            }
+
+            // Solo se retransmite la jugada de la carrera actual
+            ByteBuffer progress = readMessage(channel, RaceProtocol.PROGRESS_SIZE);
+            assertEquals(RaceProtocol.PROGRESS, progress.get(0));
+            assertEquals(empty, progress.get(5));
+            assertEquals(3, progress.get(6));
+        }
+    }
+
+    @Test
+    void playerIdsBeyondShortRangeSurviveEncoding() {
+        ByteBuffer buffer = ByteBuffer.allocate(RaceProtocol.PUZZLE_SIZE);
+        RaceProtocol.putPuzzle(buffer, 100_000, 7, new byte[RaceProtocol.CELLS]);
+        buffer.flip();
+        assertEquals(RaceProtocol.PUZZLE, buffer.get());
+        assertEquals(100_000, buffer.getInt());
+        assertEquals(7, buffer.getInt());
+
+        buffer.clear();
+        RaceProtocol.putResult(buffer, 70_000, true, 1234);
+        assertEquals(RaceProtocol.RESULT_SIZE, buffer.position());
+        assertEquals(70_000, buffer.getInt(1));
+    }
+
+    private static SudokuModel newGame() {
+        SudokuModel model = new SudokuModel();
+        model.setVerbose(false);
+        model.startNewGame();
+        return model;
+    }
+
+    private static InetSocketAddress loopback() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+
+    private static ByteBuffer readMessage(SocketChannel channel, int size) throws Exception {
+        ByteBuffer message = ByteBuffer.allocate(size);
+        while (message.hasRemaining()) {
+            if (channel.read(message) < 0) {
+                throw new IllegalStateException("El servidor cerró la conexión");
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Copia las pistas del juego a {@code clues} y devuelve su solución.
+     */
+    private static int[][] solve(SudokuModel model, byte[] clues) {
+        int[][] grid = new int[6][6];
+        for (int cell = 0; cell < RaceProtocol.CELLS; cell++) {
+            if (model.isInitialCell(cell / 6, cell % 6)) {
+                grid[cell / 6][cell % 6] = model.getValue(cell / 6, cell % 6);
+            }
+            clues[cell] = (byte) grid[cell / 6][cell % 6];
+        }
+        int[][] solution = new int[6][6];
+        assertSame(SearchResult.UNIQUE, model.verifyPuzzle(grid, solution, SearchBudget.unlimited()));
+        return solution;
+    }
+
+    /**
+     * Cliente conectado que registra lo que recibe.
+     */
+    private static final class Player implements RaceClient.Listener {
+        final RaceClient client;
+        final CountDownLatch puzzle = new CountDownLatch(1);
+        final CountDownLatch progress;
+        final CountDownLatch result = new CountDownLatch(1);
+        final AtomicInteger lastValue = new AtomicInteger();
+        volatile byte[] clues;
+        volatile int resultPlayer;
+        volatile boolean resultValid;
+
+        Player(int port, int expectedMoves) throws Exception {
+            this.progress = new CountDownLatch(expectedMoves);
+            this.client = RaceClient.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), this);
+        }
+
+        @Override
+        public void onPuzzle(int playerId, int raceId, byte[] clues) {
+            this.clues = clues;
+            puzzle.countDown();
+        }
+
+        @Override
+        public void onProgress(int playerId, int cell, int value, int millis) {
+            lastValue.set(value);
+            progress.countDown();
+        }
+
+        @Override
+        public void onResult(int playerId, boolean valid, int millis) {
+            resultPlayer = playerId;
+            resultValid = valid;
+            result.countDown();
+        }
+    }
+}
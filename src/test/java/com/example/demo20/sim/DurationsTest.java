@@ -0,0 +1,39 @@
+package com.example.demo20.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de la lectura de duraciones de las opciones {@code --duration} y {@code --report}.
+ */
+class DurationsTest {
+
+    @Test
+    void bareNumbersAreSeconds() {
+        assertEquals(Duration.ofSeconds(5), Durations.parse("5"));
+        assertEquals(Duration.ofSeconds(90), Durations.parse("90"));
+        assertEquals(Duration.ZERO, Durations.parse("0"));
+    }
+
+    @Test
+    void suffixesSelectTheUnit() {
+        assertEquals(Duration.ofSeconds(5), Durations.parse("5s"));
+        assertEquals(Duration.ofSeconds(30), Durations.parse("30s"));
+        assertEquals(Duration.ofMinutes(5), Durations.parse("5m"));
+        assertEquals(Duration.ofMinutes(15), Durations.parse("15m"));
+        assertEquals(Duration.ofHours(2), Durations.parse("2h"));
+        assertEquals(Duration.ofHours(12), Durations.parse("12h"));
+    }
+
+    @Test
+    void malformedTextIsRejected() {
+        assertThrows(NumberFormatException.class, () -> Durations.parse(""));
+        assertThrows(NumberFormatException.class, () -> Durations.parse("s"));
+        assertThrows(NumberFormatException.class, () -> Durations.parse("5x"));
+        assertThrows(NumberFormatException.class, () -> Durations.parse("1.5h"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo20.stats;
+
+import com.example.demo20.model.Difficulty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de persistencia de las estadísticas: guardar y volver a abrir el archivo conserva los
+ * histogramas, incluida la suma exacta de los valores de la que sale la media.
+ */
+class GameStatisticsTest {
+
+    /** Tiempos que no coinciden con el límite inferior de su cubeta. */
+    private static final long[] TIMES = {95_123, 187_654, 241_999, 600_001};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void meanSurvivesRepeatedReloads() {
+        Path file = directory.resolve("stats.bin");
+        long sum = 0;
+        for (int cycle = 0; cycle < TIMES.length; cycle++) {
+            try (GameStatistics statistics = GameStatistics.open(file)) {
+                statistics.record(Difficulty.MEDIUM, TIMES[cycle], cycle);
+            }
+            sum += TIMES[cycle];
+
+            try (GameStatistics statistics = GameStatistics.open(file)) {
+                LongHistogram times = statistics.getTimeHistogram(Difficulty.MEDIUM);
+                assertEquals(cycle + 1, times.count());
+                assertEquals(sum, times.sum(), "suma tras " + (cycle + 1) + " recargas");
+                assertEquals((double) sum / (cycle + 1), times.mean());
+                assertEquals(0, statistics.getTimeHistogram(Difficulty.EASY).count());
+            }
+        }
+    }
+
+    @Test
+    void bucketsSurviveReload() {
+        Path file = directory.resolve("stats.bin");
+        LongHistogram recorded = new LongHistogram();
+        try (GameStatistics statistics = GameStatistics.open(file)) {
+            for (long time : TIMES) {
+                statistics.record(Difficulty.HARD, time, 2);
+                recorded.record(time);
+            }
+        }
+
+        try (GameStatistics statistics = GameStatistics.open(file)) {
+            LongHistogram times = statistics.getTimeHistogram(Difficulty.HARD);
+            for (int i = 0; i < LongHistogram.BUCKET_COUNT; i++) {
+                assertEquals(recorded.bucketCount(i), times.bucketCount(i), "cubeta " + i);
+            }
+            assertEquals(recorded.percentile(50), times.percentile(50));
+            assertEquals(2.0, statistics.getHintsHistogram(Difficulty.HARD).mean());
+        }
+    }
+}